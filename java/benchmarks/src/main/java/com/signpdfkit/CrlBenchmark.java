@@ -0,0 +1,51 @@
+package com.signpdfkit;
+
+import com.signpdfkit.SignPDFKit.Sign;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PEM/DER handling of downloaded CRLs, on small and multi-megabyte lists.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CrlBenchmark {
+
+    @Param({"16384", "8388608", "33554432"})
+    public int crlBytes;
+
+    @Param({"false", "true"})
+    public boolean pem;
+
+    private byte[] content;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        byte[] der = RevocationFixtures.crl(now, now.plusDays(7), crlBytes);
+        content = pem ? RevocationFixtures.pem(der) : der;
+    }
+
+    @Benchmark
+    public byte[] extractCrlDer() {
+        return Sign.extractCrlDer(content);
+    }
+}
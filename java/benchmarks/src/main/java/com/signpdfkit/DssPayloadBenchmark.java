@@ -0,0 +1,76 @@
+package com.signpdfkit;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.sun.jna.Memory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the DSS payload handed to embed_cms, as a Gson tree serialized to a
+ * String (the previous path) and streamed into native memory by DssPayload.
+ * Run with -prof gc: gc.alloc.rate.norm is the heap allocated per signature.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx512m")
+public class DssPayloadBenchmark {
+
+    @Param({"16384", "8388608"})
+    public int crlBytes;
+
+    private final Gson gson = new Gson();
+    private byte[] ocsp;
+    private byte[] crl;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        ocsp = RevocationFixtures.ocspResponse(now, now.plusDays(1));
+        crl = RevocationFixtures.crl(now, now.plusDays(7), crlBytes);
+    }
+
+    @Benchmark
+    public byte[] gsonTree() {
+        JsonObject json = new JsonObject();
+        json.addProperty("cms", SignStageBenchmark.CMS);
+        JsonArray ocspArray = new JsonArray();
+        ocspArray.add(Base64.getEncoder().encodeToString(ocsp));
+        json.add("ocsp", ocspArray);
+        JsonArray crlArray = new JsonArray();
+        crlArray.add(Base64.getEncoder().encodeToString(crl));
+        json.add("crl", crlArray);
+        // JNA encodes String arguments to a byte[] before copying them native
+        return gson.toJson(json).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public long streamed() {
+        DssPayload payload = new DssPayload(SignStageBenchmark.CMS);
+        payload.addOcsp(ocsp);
+        payload.addCrl(crl);
+        try (Memory memory = payload.toNative()) {
+            return memory.size();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.signpdfkit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remote signing latency distribution through ResilientSigner against two
+ * local stub endpoints, 2% of whose responses take 200ms instead of 5ms, so
+ * the p95-based hedge delay stays on the fast responses.
+ * Compare the p99/p99.9 of SampleTime with and without hedging; the teardown
+ * prints how much tail latency the winning hedges removed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HedgingBenchmark {
+
+    @Param({"false", "true"})
+    public boolean hedging;
+
+    private final Map<String, Object> options = new HashMap<>();
+    private SignerStub first;
+    private SignerStub second;
+    private RemoteSigner firstSigner;
+    private RemoteSigner secondSigner;
+    private ResilientSigner signer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        first = new SignerStub(5, 200, 0.02);
+        second = new SignerStub(5, 200, 0.02);
+        firstSigner = new RemoteSigner(new RemoteSigner.Options(first.endpoint()));
+        secondSigner = new RemoteSigner(new RemoteSigner.Options(second.endpoint()));
+        signer = new ResilientSigner(Arrays.asList(firstSigner, secondSigner),
+                new ResilientSigner.Options().hedging(hedging).deadline(Duration.ofSeconds(5)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%nhedges=%d wins=%d tail saved=%dms hedge delay=%dms retries=%d%n",
+                signer.hedges(), signer.hedgeWins(), signer.tailLatencySaved().toMillis(),
+                signer.hedgeDelay().toMillis(), signer.retries());
+        signer.close();
+        firstSigner.close();
+        secondSigner.close();
+        first.close();
+        second.close();
+    }
+
+    @Benchmark
+    public String sign() {
+        return signer.apply(FakeSignPDFLibrary.DIGEST, options);
+    }
+}
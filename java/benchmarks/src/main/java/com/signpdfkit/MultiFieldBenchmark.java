@@ -0,0 +1,104 @@
+package com.signpdfkit;
+
+import com.signpdfkit.SignPDFKit.DSS;
+import com.signpdfkit.SignPDFKit.Sign;
+import com.signpdfkit.SignPDFKit.Sign.FieldSpec;
+import com.signpdfkit.SignPDFKit.Sign.SignPdfOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end latency of a five-signature document: one signFields call versus
+ * chaining signPdf through intermediate files in the temp directory, the way
+ * multi-signer workflows do today.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MultiFieldBenchmark {
+
+    private static final int FIELDS = 5;
+
+    @Param({"1048576", "16777216"})
+    public int documentBytes;
+
+    @Param({"0", "2"})
+    public int signerMillis;
+
+    private Sign signer;
+    private Path directory;
+    private Path input;
+    private List<FieldSpec> fields;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        FakeSignPDFLibrary lib = new FakeSignPDFLibrary(16 * 1024, FIELDS);
+        lib.signedDocumentBytes(documentBytes);
+        signer = new Sign(lib, (digest, opts) -> {
+            if (signerMillis > 0) {
+                try {
+                    Thread.sleep(signerMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return SignStageBenchmark.CMS;
+        }, new HashMap<>());
+
+        directory = Files.createTempDirectory("signpdfkit-fields");
+        input = Files.write(directory.resolve("in.pdf"), new byte[documentBytes]);
+        fields = new ArrayList<>();
+        for (int i = 0; i < FIELDS; i++) {
+            fields.add(new FieldSpec(new SignPdfOptions(null, null).fieldId("Signer" + i).dss(DSS.NO)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public String signFields() {
+        return signer.signFields(input.toString(), directory.resolve("fields.pdf").toString(), fields);
+    }
+
+    @Benchmark
+    public String chainedSignPdf() {
+        String current = input.toString();
+        String result = null;
+        for (int i = 0; i < FIELDS; i++) {
+            String target = directory.resolve("chained" + i + ".pdf").toString();
+            result = signer.signPdf(fields.get(i).options.withPaths(current, target));
+            current = target;
+        }
+        return result;
+    }
+}
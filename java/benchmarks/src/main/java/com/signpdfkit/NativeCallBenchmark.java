@@ -0,0 +1,76 @@
+package com.signpdfkit;
+
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call overhead of the SignPDFLibrary interface mapping (as Native.load
+ * gives) versus the NativeLibraries direct binding (as
+ * -Dsignpdfkit.directMapping=true gives), on libsignpdfkit's own exports.
+ *
+ * Each operation is verify on a missing file followed by free_c_string of its
+ * result: two real calls with the same marshalling as in production, where
+ * the native work (a failed open and a short error string) is small and
+ * identical for both bindings. Point -Dsignpdfkit.library at the shared
+ * library, e.g. ../lib/linux_x86_64/libsignpdfkit.so.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NativeCallBenchmark {
+
+    private static final String MISSING = "/nonexistent/signpdfkit-benchmark.pdf";
+
+    private SignPDFKit.SignPDFLibrary proxy;
+    private SignPDFKit.SignPDFLibrary direct;
+
+    @Setup
+    public void load() {
+        String library = System.getProperty("signpdfkit.library");
+        if (library == null || !Files.isRegularFile(Paths.get(library))) {
+            throw new IllegalStateException("Set -Dsignpdfkit.library to libsignpdfkit, not found: " + library);
+        }
+        proxy = Native.load(library, SignPDFKit.SignPDFLibrary.class);
+        if (!NativeLibraries.DirectSignPDFLibrary.register(library)) {
+            throw new IllegalStateException("Direct binding is registered against another library");
+        }
+        direct = NativeLibraries.DirectSignPDFLibrary.INSTANCE;
+    }
+
+    @Benchmark
+    public long interfaceMapping() {
+        return verifyAndFree(proxy);
+    }
+
+    @Benchmark
+    public long directMapping() {
+        return verifyAndFree(direct);
+    }
+
+    private static long verifyAndFree(SignPDFKit.SignPDFLibrary lib) {
+        Pointer result = lib.verify(MISSING);
+        if (result == null) {
+            return 0;
+        }
+        long address = Pointer.nativeValue(result);
+        lib.free_c_string(result);
+        return address;
+    }
+}
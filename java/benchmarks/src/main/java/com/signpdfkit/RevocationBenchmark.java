@@ -0,0 +1,66 @@
+package com.signpdfkit;
+
+import com.signpdfkit.SignPDFKit.DSS;
+import com.signpdfkit.SignPDFKit.Sign;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * getRevocation with DSS against a local OCSP/CRL responder: parameter parsing,
+ * fetching, PEM/DER handling and building the DSS JSON, with and without the
+ * revocation cache. CRLs are served as PEM; the 32MB one shows whether the
+ * streaming download keeps heap per call near the DER size (-prof gc).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RevocationBenchmark {
+
+    @Param({"16384", "4194304", "33554432"})
+    public int crlBytes;
+
+    @Param({"false", "true"})
+    public boolean cached;
+
+    private RevocationFixtures fixtures;
+    private Sign signer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        fixtures = new RevocationFixtures(crlBytes, true);
+        FakeSignPDFLibrary lib = new FakeSignPDFLibrary(1024, 1);
+        lib.revocationParameters(fixtures.revocationParameters());
+        signer = new Sign(lib, (digest, opts) -> SignStageBenchmark.CMS, new HashMap<>());
+        if (cached) {
+            signer.revocationCache(new RevocationCache());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixtures.close();
+    }
+
+    @Benchmark
+    public String getRevocation() {
+        return signer.getRevocation(SignStageBenchmark.CMS, DSS.YES);
+    }
+}
@@ -0,0 +1,101 @@
+package com.signpdfkit;
+
+import com.signpdfkit.SignPDFKit.DSS;
+import com.signpdfkit.SignPDFKit.Sign;
+import com.signpdfkit.SignPDFKit.Sign.SignPdfOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Documents per second through signBatch versus sequential signPdf calls, with a
+ * remote signer that takes a few milliseconds. Raising workers shows the stage
+ * overlap and how throughput scales with the pool sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SignBatchBenchmark {
+
+    private static final int DOCUMENTS = 64;
+
+    @Param({"1", "2", "4", "8"})
+    public int workers;
+
+    @Param({"2"})
+    public int signerMillis;
+
+    private Sign signer;
+    private Path directory;
+    private List<SignPdfOptions> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        FakeSignPDFLibrary lib = new FakeSignPDFLibrary(16 * 1024, 1);
+        signer = new Sign(lib, (digest, opts) -> {
+            try {
+                Thread.sleep(signerMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return SignStageBenchmark.CMS;
+        }, new HashMap<>());
+
+        directory = Files.createTempDirectory("signpdfkit-batch");
+        batch = new ArrayList<>();
+        for (int i = 0; i < DOCUMENTS; i++) {
+            batch.add(new SignPdfOptions(directory.resolve("in" + i + ".pdf").toString(),
+                    directory.resolve("out" + i + ".pdf").toString()).dss(DSS.NO));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOCUMENTS)
+    public List<String> signBatch() {
+        return signer.signBatch(batch, workers, 4 * workers, workers);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOCUMENTS)
+    public int sequentialSignPdf() {
+        int failures = 0;
+        for (SignPdfOptions opts : batch) {
+            if (!signer.signPdf(opts).contains("\"response_code\":0")) {
+                failures++;
+            }
+        }
+        return failures;
+    }
+}
@@ -0,0 +1,122 @@
+package com.signpdfkit;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.signpdfkit.SignPDFKit.DSS;
+import com.signpdfkit.SignPDFKit.Sign;
+import com.signpdfkit.SignPDFKit.Sign.SignPdfOptions;
+import com.sun.jna.Pointer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * signPdf per stage against the fake library. The digest benchmarks compare the
+ * String/Gson round-trip of the pre-sign payload with the native PreSign handle,
+ * and the file benchmarks compare the path API with the in-memory overloads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SignStageBenchmark {
+
+    static final String CMS = "MIIB" + FakeSignPDFLibrary.repeat('Q', 4096);
+
+    @Param({"1024", "262144"})
+    public int appearanceBytes;
+
+    private FakeSignPDFLibrary lib;
+    private Sign signer;
+    private SignPdfOptions options;
+    private final Gson gson = new Gson();
+    private Path directory;
+    private byte[] pdf;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        lib = new FakeSignPDFLibrary(appearanceBytes, 1);
+        signer = new Sign(lib, (digest, opts) -> CMS, new HashMap<>());
+        directory = Files.createTempDirectory("signpdfkit-bench");
+        options = new SignPdfOptions(directory.resolve("input.pdf").toString(), directory.resolve("output.pdf").toString())
+                .dss(DSS.NO);
+        pdf = new byte[512 * 1024];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public int digestAndEmbedViaString() {
+        Pointer ptr = calculateDigest();
+        String preSignStr = ptr.getString(0);
+        lib.free_c_string(ptr);
+        JsonObject data = gson.fromJson(preSignStr, JsonObject.class);
+        String digest = data.getAsJsonObject("data").get("digest").getAsString();
+        return lib.embed_cms(preSignStr, digest, options.outputPath);
+    }
+
+    @Benchmark
+    public int digestAndEmbedViaHandle() {
+        try (PreSign preSign = PreSign.wrap(lib, calculateDigest())) {
+            String digest = preSign.digest();
+            return lib.embed_cms(preSign.pointer(), digest, options.outputPath);
+        }
+    }
+
+    @Benchmark
+    public String revocationWithoutDss() {
+        return signer.getRevocation(CMS, DSS.NO);
+    }
+
+    @Benchmark
+    public String signPdf() {
+        return signer.signPdf(options);
+    }
+
+    @Benchmark
+    public void signPdfViaFiles(Blackhole blackhole) throws IOException {
+        Files.write(Path.of(options.inputPath), pdf);
+        blackhole.consume(signer.signPdf(options));
+        blackhole.consume(Files.readAllBytes(Path.of(options.outputPath)));
+    }
+
+    @Benchmark
+    public String signPdfInMemory() {
+        return signer.signPdf(pdf, OutputStream.nullOutputStream(), options);
+    }
+
+    private Pointer calculateDigest() {
+        return lib.calculate_digest(options.inputPath, options.imagePath, options.url, options.location,
+                options.reason, options.contactInfo, options.fieldId, options.character, options.signatureType,
+                options.page, options.fieldType, options.visibility, options.x, options.y, options.width,
+                options.height, options.dss);
+    }
+}
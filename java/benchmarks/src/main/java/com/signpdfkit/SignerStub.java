@@ -0,0 +1,54 @@
+package com.signpdfkit;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local remote-signing endpoint answering {"cms": "..."} after an injected
+ * delay: fastMillis usually, slowMillis for a slowFraction of the requests.
+ */
+final class SignerStub implements AutoCloseable {
+
+    private static final byte[] RESPONSE = ("{\"cms\":\"" + SignStageBenchmark.CMS + "\"}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+
+    SignerStub(int fastMillis, int slowMillis, double slowFraction) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/sign", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            boolean slow = ThreadLocalRandom.current().nextDouble() < slowFraction;
+            try {
+                Thread.sleep(slow ? slowMillis : fastMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, RESPONSE.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(RESPONSE);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    URI endpoint() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/sign");
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        ((ExecutorService) server.getExecutor()).shutdownNow();
+    }
+}
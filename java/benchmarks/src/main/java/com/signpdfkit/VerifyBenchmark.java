@@ -0,0 +1,51 @@
+package com.signpdfkit;
+
+import com.signpdfkit.SignPDFKit.Verify;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verify.verify result marshalling for documents with one and many signatures.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VerifyBenchmark {
+
+    @Param({"1", "10"})
+    public int signatures;
+
+    private Verify verifier;
+    private byte[] pdf;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        verifier = new Verify(new FakeSignPDFLibrary(0, signatures));
+        pdf = new byte[512 * 1024];
+    }
+
+    @Benchmark
+    public String verifyPath() {
+        return verifier.verify("signed.pdf");
+    }
+
+    @Benchmark
+    public String verifyInMemory() {
+        return verifier.verify(pdf);
+    }
+}
@@ -0,0 +1,250 @@
+package com.signpdfkit;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonWriter;
+import com.signpdfkit.SignPDFKit.Verify;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Verifies large sets of signed PDFs in parallel and streams each result as soon
+ * as it is ready.
+ *
+ * Paths are pulled lazily from the stream and at most a few tasks per worker are
+ * queued at any time, so memory use stays flat however large the archive is.
+ * Verification runs on a work-stealing pool sized to the available cores.
+ */
+public class BulkVerifier {
+
+    private static final Gson GSON = new Gson();
+
+    /**
+     * Receives one result per file; result is the native verify JSON, or null when
+     * verification failed. Called concurrently from the worker threads.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onResult(Path path, String result);
+    }
+
+    /**
+     * Handle on a running bulk verification.
+     */
+    public static final class Task {
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private final AtomicLong verified = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private volatile boolean cancelled;
+
+        /**
+         * Stops submitting files; files already being verified still report.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        // Stops submitting files; the task completes exceptionally with the first failure
+        void fail(Throwable cause) {
+            failure.compareAndSet(null, cause);
+        }
+
+        boolean stopping() {
+            return cancelled || failure.get() != null;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public boolean isDone() {
+            return done.isDone();
+        }
+
+        public void await() throws InterruptedException {
+            try {
+                done.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Bulk verification failed", e.getCause());
+            }
+        }
+
+        public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+            try {
+                done.get(timeout, unit);
+                return true;
+            } catch (TimeoutException e) {
+                return false;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Bulk verification failed", e.getCause());
+            }
+        }
+
+        public CompletableFuture<Void> completion() {
+            return done;
+        }
+
+        public long verified() {
+            return verified.get();
+        }
+
+        public long failed() {
+            return failed.get();
+        }
+    }
+
+    private final Verify verifier;
+    private final int parallelism;
+
+    public BulkVerifier(Verify verifier) {
+        this(verifier, Runtime.getRuntime().availableProcessors());
+    }
+
+    public BulkVerifier(Verify verifier, int parallelism) {
+        this.verifier = verifier;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Verifies every .pdf file below root.
+     */
+    public Task verifyTree(Path root, Listener listener) {
+        try {
+            return verifyAll(Files.walk(root).filter(BulkVerifier::isPdf), listener);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public Task verifyTree(Path root, Writer ndjson) {
+        return verifyTree(root, ndjson(ndjson));
+    }
+
+    /**
+     * Verifies the given paths; the stream is consumed lazily on a dedicated
+     * thread and closed when the task finishes.
+     */
+    public Task verifyAll(Stream<Path> paths, Listener listener) {
+        Task task = new Task();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        Semaphore queued = new Semaphore(4 * parallelism);
+        Phaser outstanding = new Phaser(1);
+
+        Thread producer = new Thread(() -> {
+            try (Stream<Path> source = paths) {
+                Iterator<Path> iterator = source.iterator();
+                while (!task.stopping() && iterator.hasNext()) {
+                    Path path = iterator.next();
+                    queued.acquire();
+                    outstanding.register();
+                    pool.execute(() -> {
+                        try {
+                            if (!task.stopping()) {
+                                verifyOne(path, listener, task);
+                            }
+                        } finally {
+                            queued.release();
+                            outstanding.arriveAndDeregister();
+                        }
+                    });
+                }
+            } catch (InterruptedException e) {
+                task.cancel();
+            } catch (RuntimeException e) {
+                task.fail(e);
+            } finally {
+                outstanding.arriveAndAwaitAdvance();
+                pool.shutdown();
+                Throwable failure = task.failure.get();
+                if (failure != null) {
+                    task.done.completeExceptionally(failure);
+                } else {
+                    task.done.complete(null);
+                }
+            }
+        }, "signpdfkit-bulk-verify");
+        producer.setDaemon(true);
+        producer.start();
+        return task;
+    }
+
+    /**
+     * Listener writing one NDJSON line per file: {"path": "...", "result": {...}}.
+     * The native result is re-serialised compactly, so pretty-printed output
+     * still yields exactly one record per line. A failed write fails the task
+     * instead of silently dropping the rest of the output.
+     */
+    public static Listener ndjson(Writer out) {
+        return (path, result) -> {
+            synchronized (out) {
+                try {
+                    JsonWriter line = new JsonWriter(out);
+                    line.beginObject();
+                    line.name("path").value(path.toString());
+                    line.name("result");
+                    if (result == null) {
+                        line.nullValue();
+                    } else {
+                        GSON.toJson(compact(result), line);
+                    }
+                    line.endObject();
+                    line.flush();
+                    out.write('\n');
+                    out.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    private void verifyOne(Path path, Listener listener, Task task) {
+        String result = verifier.verify(path.toString());
+        if (result != null) {
+            task.verified.incrementAndGet();
+        } else {
+            task.failed.incrementAndGet();
+        }
+
+        try {
+            listener.onResult(path, result);
+        } catch (UncheckedIOException e) {
+            // The output is broken, so no later result can be delivered either
+            task.fail(e.getCause());
+        } catch (RuntimeException e) {
+            System.err.println("Bulk verification listener failed for " + path + ": " + e.getMessage());
+        }
+    }
+
+    // A result that is not valid JSON is kept verbatim as a string value
+    private static JsonElement compact(String result) {
+        try {
+            return JsonParser.parseString(result);
+        } catch (JsonParseException e) {
+            return new JsonPrimitive(result);
+        }
+    }
+
+    private static boolean isPdf(Path path) {
+        return Files.isRegularFile(path) && path.getFileName().toString().toLowerCase().endsWith(".pdf");
+    }
+}
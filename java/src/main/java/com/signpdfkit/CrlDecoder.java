@@ -0,0 +1,303 @@
+package com.signpdfkit;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * Incremental CRL decoder: DER is copied through, PEM is base64-decoded as the
+ * bytes arrive. Input whose first non-blank byte is a DER SEQUENCE tag (0x30)
+ * is DER; anything else is read as PEM, skipping lines (e.g. an openssl text
+ * dump) up to the first -----BEGIN line and decoding only that block.
+ *
+ * Output is capped at maxBytes of DER, so a download is never held twice nor
+ * as a String, and an oversized CRL is rejected as soon as it crosses the cap.
+ */
+final class CrlDecoder {
+
+    static final class TooLargeException extends IOException {
+        TooLargeException(long maxBytes) {
+            super("CRL exceeds " + maxBytes + " bytes");
+        }
+    }
+
+    private static final int INITIAL_CAPACITY = 16 * 1024;
+    private static final byte DER_SEQUENCE = 0x30;
+    private static final byte[] BEGIN = "-----BEGIN".getBytes(StandardCharsets.US_ASCII);
+
+    private enum Format { UNKNOWN, DER, PEM }
+
+    private final long maxBytes;
+    private Format format = Format.UNKNOWN;
+    private byte[] out;
+    private int size;
+
+    // PEM state
+    private boolean lineStart = true;
+    private boolean skipLine;
+    private boolean begun;
+    private int matched;
+    private boolean inBody;
+    private boolean done;
+    private int quantum;
+    private int pending;
+    private int padding;
+
+    CrlDecoder(long maxBytes, long expectedBytes) {
+        this.maxBytes = maxBytes;
+        this.out = new byte[(int) Math.max(16, Math.min(Math.min(maxBytes, Integer.MAX_VALUE - 8),
+                expectedBytes > 0 ? expectedBytes : INITIAL_CAPACITY))];
+    }
+
+    /**
+     * Decodes a CRL already held in memory. DER input, and input without a PEM
+     * block, is returned as-is.
+     */
+    static byte[] decode(byte[] content, long maxBytes) throws IOException {
+        int first = 0;
+        while (first < content.length && isBlank(content[first])) {
+            first++;
+        }
+        if (first == content.length || content[first] == DER_SEQUENCE || indexOf(content, BEGIN) < 0) {
+            if (content.length > maxBytes) {
+                throw new TooLargeException(maxBytes);
+            }
+            return content;
+        }
+        CrlDecoder decoder = new CrlDecoder(maxBytes, content.length / 4 * 3);
+        decoder.accept(ByteBuffer.wrap(content));
+        return decoder.finish();
+    }
+
+    /**
+     * Body handler for CRL downloads. Non-200 bodies are discarded and complete
+     * with null; a declared Content-Length above maxBytes fails before reading.
+     */
+    static HttpResponse.BodyHandler<byte[]> bodyHandler(long maxBytes) {
+        return info -> {
+            if (info.statusCode() != 200) {
+                return HttpResponse.BodySubscribers.replacing(null);
+            }
+            long length = info.headers().firstValueAsLong("Content-Length").orElse(-1);
+            return new Subscriber(maxBytes, length);
+        };
+    }
+
+    void accept(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining() && !done) {
+            if (format == Format.UNKNOWN) {
+                byte b = buffer.get(buffer.position());
+                if (isBlank(b)) {
+                    buffer.get();
+                    continue;
+                }
+                format = b == DER_SEQUENCE ? Format.DER : Format.PEM;
+            }
+            if (format == Format.DER) {
+                int length = buffer.remaining();
+                ensureCapacity(length);
+                buffer.get(out, size, length);
+                size += length;
+            } else {
+                acceptPem(buffer.get());
+            }
+        }
+        buffer.position(buffer.limit());
+    }
+
+    byte[] finish() throws IOException {
+        if (format == Format.PEM) {
+            if (!begun) {
+                throw new IOException("Neither DER nor PEM CRL");
+            }
+            if (pending == 1) {
+                throw new IOException("Truncated base64 in PEM CRL");
+            }
+            flushPartial();
+        }
+        return size == out.length ? out : Arrays.copyOf(out, size);
+    }
+
+    private void acceptPem(byte b) throws IOException {
+        if (b == '\n') {
+            lineStart = true;
+            skipLine = false;
+            matched = 0;
+            return;
+        }
+        if (!begun) {
+            // Everything up to and including the -----BEGIN line is skipped
+            if (matched >= 0 && b == BEGIN[matched]) {
+                if (++matched == BEGIN.length) {
+                    begun = true;
+                    skipLine = true;
+                }
+            } else {
+                matched = -1;
+            }
+            return;
+        }
+        if (lineStart && b == '-') {
+            // Header before the body; footer (or a further block) after it
+            if (inBody) {
+                done = true;
+                return;
+            }
+            skipLine = true;
+        }
+        if (b != '\r') {
+            lineStart = false;
+        }
+        if (skipLine || isBlank(b)) {
+            return;
+        }
+
+        int value = base64Value(b);
+        if (b == '=') {
+            padding++;
+            return;
+        }
+        if (value < 0 || padding > 0) {
+            throw new IOException("Invalid base64 in PEM CRL");
+        }
+        inBody = true;
+        quantum = (quantum << 6) | value;
+        if (++pending == 4) {
+            ensureCapacity(3);
+            out[size++] = (byte) (quantum >> 16);
+            out[size++] = (byte) (quantum >> 8);
+            out[size++] = (byte) quantum;
+            quantum = 0;
+            pending = 0;
+        }
+    }
+
+    private void flushPartial() throws IOException {
+        if (pending == 2) {
+            ensureCapacity(1);
+            out[size++] = (byte) (quantum >> 4);
+        } else if (pending == 3) {
+            ensureCapacity(2);
+            out[size++] = (byte) (quantum >> 10);
+            out[size++] = (byte) (quantum >> 2);
+        }
+        pending = 0;
+    }
+
+    private void ensureCapacity(int extra) throws IOException {
+        long needed = (long) size + extra;
+        if (needed > maxBytes) {
+            throw new TooLargeException(maxBytes);
+        }
+        if (needed > out.length) {
+            long grown = Math.max(needed, Math.min((long) out.length * 2, Math.min(maxBytes, Integer.MAX_VALUE - 8)));
+            out = Arrays.copyOf(out, (int) grown);
+        }
+    }
+
+    private static int indexOf(byte[] content, byte[] marker) {
+        for (int i = 0; i <= content.length - marker.length; i++) {
+            int j = 0;
+            while (j < marker.length && content[i + j] == marker[j]) {
+                j++;
+            }
+            if (j == marker.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int base64Value(byte b) {
+        if (b >= 'A' && b <= 'Z') {
+            return b - 'A';
+        }
+        if (b >= 'a' && b <= 'z') {
+            return b - 'a' + 26;
+        }
+        if (b >= '0' && b <= '9') {
+            return b - '0' + 52;
+        }
+        if (b == '+') {
+            return 62;
+        }
+        if (b == '/') {
+            return 63;
+        }
+        return -1;
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+
+    private static final class Subscriber implements HttpResponse.BodySubscriber<byte[]> {
+        private final CompletableFuture<byte[]> body = new CompletableFuture<>();
+        private final long maxBytes;
+        private final long contentLength;
+        private Flow.Subscription subscription;
+        private CrlDecoder decoder;
+
+        Subscriber(long maxBytes, long contentLength) {
+            this.maxBytes = maxBytes;
+            this.contentLength = contentLength;
+        }
+
+        @Override
+        public CompletionStage<byte[]> getBody() {
+            return body;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            // PEM is a third larger than its DER; anything beyond that cannot fit
+            if (contentLength > maxBytes / 3 * 4 + 4096) {
+                subscription.cancel();
+                body.completeExceptionally(new TooLargeException(maxBytes));
+                return;
+            }
+            // Sized from the declared length only once that length is known to fit
+            decoder = new CrlDecoder(maxBytes, contentLength);
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            if (body.isDone()) {
+                return;
+            }
+            try {
+                for (ByteBuffer buffer : buffers) {
+                    decoder.accept(buffer);
+                }
+            } catch (IOException e) {
+                subscription.cancel();
+                body.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            body.completeExceptionally(error);
+        }
+
+        @Override
+        public void onComplete() {
+            if (body.isDone()) {
+                return;
+            }
+            try {
+                body.complete(decoder.finish());
+            } catch (IOException e) {
+                body.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.signpdfkit;
+
+import com.sun.jna.Memory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * DSS payload for embed_cms: {"cms":"...","ocsp":["..."],"crl":["..."]}.
+ *
+ * OCSP responses and CRLs are kept as DER and base64-encoded only while the
+ * payload is written, chunk by chunk, straight into its destination. For
+ * embed_cms that is a native buffer of the exact encoded size, so a
+ * multi-megabyte CRL costs its DER bytes plus a 48KB source chunk and its 64KB
+ * encoding of heap, instead of a base64 String, a JSON tree and the serialized
+ * JSON String.
+ */
+final class DssPayload {
+
+    // 48KB of DER per chunk, encoding to 64KB; a multiple of 3 so every chunk
+    // but the last encodes without padding
+    static final int CHUNK = 3 * 16 * 1024;
+
+    private static final byte[] CMS_OPEN = "{\"cms\":\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] OCSP_OPEN = "\",\"ocsp\":[".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CRL_OPEN = "],\"crl\":[".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CLOSE = "]}".getBytes(StandardCharsets.US_ASCII);
+
+    private final byte[] cms;
+    private final List<byte[]> ocsp = new ArrayList<>();
+    private final List<byte[]> crl = new ArrayList<>();
+
+    DssPayload(String cms) {
+        this.cms = escape(cms);
+    }
+
+    void addOcsp(byte[] der) {
+        ocsp.add(der);
+    }
+
+    void addCrl(byte[] der) {
+        crl.add(der);
+    }
+
+    /**
+     * Exact size of the encoded payload in bytes.
+     */
+    long size() {
+        return CMS_OPEN.length + cms.length + OCSP_OPEN.length + arraySize(ocsp)
+                + CRL_OPEN.length + arraySize(crl) + CLOSE.length;
+    }
+
+    /**
+     * Writes the payload into a NUL-terminated native buffer for embed_cms. The
+     * caller closes the returned memory once the call returns.
+     */
+    Memory toNative() {
+        long size = size();
+        Memory memory = new Memory(size + 1);
+        ByteBuffer target = memory.getByteBuffer(0, size);
+        try {
+            writeTo(new OutputStream() {
+                @Override
+                public void write(int b) {
+                    target.put((byte) b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    target.put(b, off, len);
+                }
+            });
+        } catch (IOException e) {
+            memory.close();
+            throw new UncheckedIOException(e);
+        }
+        memory.setByte(size, (byte) 0);
+        return memory;
+    }
+
+    void writeTo(OutputStream out) throws IOException {
+        byte[] source = new byte[CHUNK];
+        byte[] chunk = new byte[4 * CHUNK / 3];
+        out.write(CMS_OPEN);
+        out.write(cms);
+        out.write(OCSP_OPEN);
+        writeArray(out, ocsp, source, chunk);
+        out.write(CRL_OPEN);
+        writeArray(out, crl, source, chunk);
+        out.write(CLOSE);
+    }
+
+    String toJson() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream((int) Math.min(Integer.MAX_VALUE - 8, size()));
+        try {
+            writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static void writeArray(OutputStream out, List<byte[]> items, byte[] source, byte[] chunk)
+            throws IOException {
+        Base64.Encoder encoder = Base64.getEncoder();
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write('"');
+            byte[] der = items.get(i);
+            for (int offset = 0; offset < der.length; offset += CHUNK) {
+                int length = Math.min(CHUNK, der.length - offset);
+                byte[] block;
+                if (offset == 0 && length == der.length) {
+                    block = der;
+                } else if (length == CHUNK) {
+                    System.arraycopy(der, offset, source, 0, CHUNK);
+                    block = source;
+                } else {
+                    block = Arrays.copyOfRange(der, offset, offset + length);
+                }
+                out.write(chunk, 0, encoder.encode(block, chunk));
+            }
+            out.write('"');
+        }
+    }
+
+    private static long arraySize(List<byte[]> items) {
+        long size = Math.max(0, items.size() - 1);
+        for (byte[] der : items) {
+            size += 2 + 4L * ((der.length + 2) / 3);
+        }
+        return size;
+    }
+
+    // The CMS is base64 in practice; anything else is escaped as JSON requires
+    private static byte[] escape(String value) {
+        StringBuilder escaped = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            boolean plain = c >= 0x20 && c != '"' && c != '\\';
+            if (escaped == null) {
+                if (plain) {
+                    continue;
+                }
+                escaped = new StringBuilder(value.length() + 16).append(value, 0, i);
+            }
+            if (plain) {
+                escaped.append(c);
+            } else {
+                escaped.append(String.format("\\u%04x", (int) c));
+            }
+        }
+        return (escaped == null ? value : escaped.toString()).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,264 @@
+package com.signpdfkit;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Default {@link MetricsListener} keeping an HDR histogram per stage. Latencies
+ * are recorded in microseconds with three significant digits up to one hour;
+ * recording does not allocate.
+ */
+public class HdrMetricsListener implements MetricsListener {
+
+    private static final long HIGHEST_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final int MAX_CODE = 16;
+
+    private final Map<Stage, Histogram> latencies = new EnumMap<>(Stage.class);
+    private final Map<Stage, LongAdder> bytes = new EnumMap<>(Stage.class);
+    private final Histogram signLatency = newHistogram();
+    private final Histogram verifyLatency = newHistogram();
+    // Index MAX_CODE counts every code outside 0..MAX_CODE-1
+    private final AtomicLongArray signCodes = new AtomicLongArray(MAX_CODE + 1);
+    private final LongAdder verifyFailures = new LongAdder();
+    private final LongAdder ocspFetches = new LongAdder();
+    private final LongAdder crlFetches = new LongAdder();
+    private final LongAdder revocationCacheHits = new LongAdder();
+    private final LongAdder revocationFailures = new LongAdder();
+    private final Map<NativeGovernor.Lane, Histogram> governorWaits = new EnumMap<>(NativeGovernor.Lane.class);
+    private final Map<NativeGovernor.Lane, Histogram> governorQueueDepths = new EnumMap<>(NativeGovernor.Lane.class);
+    private final Map<NativeGovernor.Lane, LongAdder> governorRejections = new EnumMap<>(NativeGovernor.Lane.class);
+    private final Histogram hedgeSavings = newHistogram();
+
+    public HdrMetricsListener() {
+        for (Stage stage : Stage.values()) {
+            latencies.put(stage, newHistogram());
+            bytes.put(stage, new LongAdder());
+        }
+        for (NativeGovernor.Lane lane : NativeGovernor.Lane.values()) {
+            governorWaits.put(lane, newHistogram());
+            governorQueueDepths.put(lane, new ConcurrentHistogram(1_000_000, 2));
+            governorRejections.put(lane, new LongAdder());
+        }
+    }
+
+    private static Histogram newHistogram() {
+        return new ConcurrentHistogram(HIGHEST_MICROS, 3);
+    }
+
+    private static void record(Histogram histogram, long nanos) {
+        histogram.recordValue(Math.min(HIGHEST_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos))));
+    }
+
+    @Override
+    public void stage(Stage stage, long nanos, long size) {
+        record(latencies.get(stage), nanos);
+        bytes.get(stage).add(size);
+    }
+
+    @Override
+    public void revocationFetch(String type, boolean cached, boolean success) {
+        if ("ocsp".equals(type)) {
+            ocspFetches.increment();
+        } else {
+            crlFetches.increment();
+        }
+        if (cached) {
+            revocationCacheHits.increment();
+        }
+        if (!success) {
+            revocationFailures.increment();
+        }
+    }
+
+    @Override
+    public void signCompleted(int responseCode, long nanos) {
+        record(signLatency, nanos);
+        signCodes.incrementAndGet(responseCode >= 0 && responseCode < MAX_CODE ? responseCode : MAX_CODE);
+    }
+
+    @Override
+    public void verifyCompleted(boolean success, long nanos) {
+        record(verifyLatency, nanos);
+        if (!success) {
+            verifyFailures.increment();
+        }
+    }
+
+    @Override
+    public void governorWait(NativeGovernor.Lane lane, long waitNanos, int queueDepth) {
+        record(governorWaits.get(lane), waitNanos);
+        governorQueueDepths.get(lane).recordValue(Math.min(1_000_000, queueDepth));
+    }
+
+    @Override
+    public void governorRejected(NativeGovernor.Lane lane, boolean timedOut) {
+        governorRejections.get(lane).increment();
+    }
+
+    @Override
+    public void hedgeSaved(long nanos) {
+        record(hedgeSavings, nanos);
+    }
+
+    /**
+     * Latency of a stage at the given percentile (0-100), in microseconds.
+     */
+    public long percentileMicros(Stage stage, double percentile) {
+        return latencies.get(stage).getValueAtPercentile(percentile);
+    }
+
+    public long p50Micros(Stage stage) {
+        return percentileMicros(stage, 50.0);
+    }
+
+    public long p99Micros(Stage stage) {
+        return percentileMicros(stage, 99.0);
+    }
+
+    public long p999Micros(Stage stage) {
+        return percentileMicros(stage, 99.9);
+    }
+
+    public long count(Stage stage) {
+        return latencies.get(stage).getTotalCount();
+    }
+
+    public long bytes(Stage stage) {
+        return bytes.get(stage).sum();
+    }
+
+    public long signPercentileMicros(double percentile) {
+        return signLatency.getValueAtPercentile(percentile);
+    }
+
+    public long verifyPercentileMicros(double percentile) {
+        return verifyLatency.getValueAtPercentile(percentile);
+    }
+
+    /**
+     * Number of signatures that finished with the given response_code.
+     */
+    public long signCount(int responseCode) {
+        return signCodes.get(responseCode >= 0 && responseCode < MAX_CODE ? responseCode : MAX_CODE);
+    }
+
+    public long verifyCount() {
+        return verifyLatency.getTotalCount();
+    }
+
+    public long verifyFailures() {
+        return verifyFailures.sum();
+    }
+
+    public long ocspFetches() {
+        return ocspFetches.sum();
+    }
+
+    public long crlFetches() {
+        return crlFetches.sum();
+    }
+
+    public long revocationCacheHits() {
+        return revocationCacheHits.sum();
+    }
+
+    public long revocationFailures() {
+        return revocationFailures.sum();
+    }
+
+    /**
+     * Time spent waiting for a governor permit at the given percentile, in microseconds.
+     */
+    public long governorWaitPercentileMicros(NativeGovernor.Lane lane, double percentile) {
+        return governorWaits.get(lane).getValueAtPercentile(percentile);
+    }
+
+    /**
+     * Governor queue depth seen by arriving callers at the given percentile.
+     */
+    public long governorQueueDepthPercentile(NativeGovernor.Lane lane, double percentile) {
+        return governorQueueDepths.get(lane).getValueAtPercentile(percentile);
+    }
+
+    public long governorRejections(NativeGovernor.Lane lane) {
+        return governorRejections.get(lane).sum();
+    }
+
+    /**
+     * Latency removed by winning hedges at the given percentile, in microseconds.
+     */
+    public long hedgeSavedPercentileMicros(double percentile) {
+        return hedgeSavings.getValueAtPercentile(percentile);
+    }
+
+    public long hedgeSavedCount() {
+        return hedgeSavings.getTotalCount();
+    }
+
+    public void reset() {
+        for (Stage stage : Stage.values()) {
+            latencies.get(stage).reset();
+            bytes.get(stage).reset();
+        }
+        signLatency.reset();
+        verifyLatency.reset();
+        for (int i = 0; i <= MAX_CODE; i++) {
+            signCodes.set(i, 0);
+        }
+        verifyFailures.reset();
+        ocspFetches.reset();
+        crlFetches.reset();
+        revocationCacheHits.reset();
+        revocationFailures.reset();
+        for (NativeGovernor.Lane lane : NativeGovernor.Lane.values()) {
+            governorWaits.get(lane).reset();
+            governorQueueDepths.get(lane).reset();
+            governorRejections.get(lane).reset();
+        }
+        hedgeSavings.reset();
+    }
+
+    /**
+     * One line per stage with count, p50/p99/p999 (microseconds) and bytes.
+     */
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        for (Stage stage : Stage.values()) {
+            out.append(String.format("%-12s count=%d p50=%dus p99=%dus p999=%dus bytes=%d%n",
+                    stage, count(stage), p50Micros(stage), p99Micros(stage), p999Micros(stage), bytes(stage)));
+        }
+        out.append(String.format("sign         count=%d p50=%dus p99=%dus p999=%dus",
+                signLatency.getTotalCount(), signPercentileMicros(50.0), signPercentileMicros(99.0),
+                signPercentileMicros(99.9)));
+        for (int code = 0; code <= MAX_CODE; code++) {
+            long count = signCodes.get(code);
+            if (count > 0) {
+                out.append(code == MAX_CODE ? " code_other=" : " code_" + code + "=").append(count);
+            }
+        }
+        out.append(String.format("%nverify       count=%d failures=%d p50=%dus p99=%dus p999=%dus%n",
+                verifyCount(), verifyFailures(), verifyPercentileMicros(50.0), verifyPercentileMicros(99.0),
+                verifyPercentileMicros(99.9)));
+        out.append(String.format("revocation   ocsp=%d crl=%d cached=%d failed=%d%n",
+                ocspFetches(), crlFetches(), revocationCacheHits(), revocationFailures()));
+        for (NativeGovernor.Lane lane : NativeGovernor.Lane.values()) {
+            if (governorWaits.get(lane).getTotalCount() > 0 || governorRejections(lane) > 0) {
+                out.append(String.format("governor %-7s permits=%d rejected=%d wait_p99=%dus queue_p99=%d%n",
+                        lane, governorWaits.get(lane).getTotalCount(), governorRejections(lane),
+                        governorWaitPercentileMicros(lane, 99.0), governorQueueDepthPercentile(lane, 99.0)));
+            }
+        }
+        if (hedgeSavedCount() > 0) {
+            out.append(String.format("hedging      wins=%d saved_p50=%dus saved_p99=%dus%n",
+                    hedgeSavedCount(), hedgeSavedPercentileMicros(50.0), hedgeSavedPercentileMicros(99.0)));
+        }
+        return out.toString();
+    }
+}
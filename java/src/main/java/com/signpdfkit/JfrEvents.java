@@ -0,0 +1,185 @@
+package com.signpdfkit;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+
+/**
+ * Java Flight Recorder events for native calls, remote signing and revocation
+ * fetches. When recording is off, shouldCommit() is false and the event objects
+ * are scalar-replaced by the JIT, so instrumented calls cost next to nothing.
+ *
+ * Callers finish events in a finally block, so failing and timed-out calls are
+ * recorded too, with success false and the exception in the error field.
+ */
+final class JfrEvents {
+
+    private JfrEvents() {
+    }
+
+    @Name("com.signpdfkit.NativeCall")
+    @Label("SignPDFKit Native Call")
+    @Category({"SignPDFKit"})
+    @Description("Call into libsignpdfkit")
+    @StackTrace(false)
+    static final class NativeCall extends Event {
+        @Label("Function")
+        String function;
+
+        @Label("Path")
+        String path;
+
+        @Label("Input Size")
+        @DataAmount
+        long inputBytes;
+
+        @Label("Output Size")
+        @DataAmount
+        long outputBytes;
+
+        @Label("Result Code")
+        int resultCode;
+
+        @Label("Success")
+        boolean success;
+
+        @Label("Error")
+        String error;
+
+        static NativeCall start() {
+            NativeCall event = new NativeCall();
+            event.begin();
+            return event;
+        }
+
+        // Marks the call as thrown; finish still has to be called
+        void fail(Throwable e) {
+            this.error = e.toString();
+        }
+
+        void finish(String function, String path, long inputBytes, long outputBytes, int resultCode) {
+            end();
+            if (shouldCommit()) {
+                record(function, path, inputBytes, outputBytes, resultCode);
+            }
+        }
+
+        // For calls reading the file at path: its size is the input, looked up only when recorded
+        void finishReading(String function, String path, long outputBytes, int resultCode) {
+            end();
+            if (shouldCommit()) {
+                record(function, path, fileSize(path), outputBytes, resultCode);
+            }
+        }
+
+        private void record(String function, String path, long inputBytes, long outputBytes, int resultCode) {
+            this.function = function;
+            this.path = path;
+            this.inputBytes = inputBytes;
+            this.outputBytes = outputBytes;
+            this.resultCode = resultCode;
+            this.success = error == null && resultCode == 0;
+            commit();
+        }
+
+        // 0 when the file is missing or unreadable, as for a call without input
+        private static long fileSize(String path) {
+            try {
+                return path == null ? 0 : Files.size(Paths.get(path));
+            } catch (IOException | InvalidPathException e) {
+                return 0;
+            }
+        }
+    }
+
+    @Name("com.signpdfkit.RemoteSign")
+    @Label("SignPDFKit Remote Sign")
+    @Category({"SignPDFKit"})
+    @Description("Digest signed by the remote signing function")
+    @StackTrace(false)
+    static final class RemoteSign extends Event {
+        @Label("Digest Length")
+        int digestLength;
+
+        @Label("CMS Size")
+        @DataAmount
+        long cmsBytes;
+
+        @Label("Success")
+        boolean success;
+
+        @Label("Error")
+        String error;
+
+        static RemoteSign start() {
+            RemoteSign event = new RemoteSign();
+            event.begin();
+            return event;
+        }
+
+        // Marks the signature as failed, e.g. by a signer error or deadline
+        void fail(Throwable e) {
+            this.error = e.toString();
+        }
+
+        void finish(String digest, String cms) {
+            end();
+            if (shouldCommit()) {
+                this.digestLength = digest == null ? 0 : digest.length();
+                this.cmsBytes = cms == null ? 0 : cms.length();
+                this.success = error == null && cms != null;
+                commit();
+            }
+        }
+    }
+
+    @Name("com.signpdfkit.RevocationFetch")
+    @Label("SignPDFKit Revocation Fetch")
+    @Category({"SignPDFKit"})
+    @Description("OCSP or CRL lookup for the DSS")
+    @StackTrace(false)
+    static final class RevocationFetch extends Event {
+        @Label("Type")
+        String type;
+
+        @Label("URL")
+        String url;
+
+        @Label("Response Size")
+        @DataAmount
+        long responseBytes;
+
+        @Label("Cached")
+        boolean cached;
+
+        @Label("Success")
+        boolean success;
+
+        static RevocationFetch start() {
+            RevocationFetch event = new RevocationFetch();
+            event.begin();
+            return event;
+        }
+
+        void finish(String type, String url, byte[] response, boolean cached) {
+            end();
+            if (shouldCommit()) {
+                this.type = type;
+                this.url = url;
+                this.responseBytes = response == null ? 0 : response.length;
+                this.cached = cached;
+                this.success = response != null;
+                commit();
+            }
+        }
+    }
+}
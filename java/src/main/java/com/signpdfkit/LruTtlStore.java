@@ -0,0 +1,375 @@
+package com.signpdfkit;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Byte-valued cache with per-entry expiry, an in-memory LRU tier bounded by entry
+ * count and total bytes, and an optional directory tier that survives restarts.
+ *
+ * The directory tier is bounded by its own byte limit. Its files are indexed in
+ * LRU order, rebuilt from the directory on startup, so the least recently used
+ * files are deleted first; expired files are swept on every write. Files are
+ * only moved into place or deleted with the index locked, so a sweep never
+ * deletes a file that a concurrent write has just replaced.
+ */
+final class LruTtlStore {
+
+    private static final class Entry {
+        final byte[] value;
+        final long expiresAt;
+        final long weight;
+
+        Entry(String key, byte[] value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.weight = value.length + 2L * key.length();
+        }
+    }
+
+    // A file of the directory tier, keyed by file name in the disk index
+    private static final class DiskEntry {
+        final long size;
+        final long expiresAt;
+
+        DiskEntry(long size, long expiresAt) {
+            this.size = size;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final int HEADER_BYTES = Long.BYTES;
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final Path directory;
+    private final long maxDiskBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private final LinkedHashMap<String, DiskEntry> diskIndex = new LinkedHashMap<>(16, 0.75f, true);
+    private long diskBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong diskEvictions = new AtomicLong();
+
+    LruTtlStore(int maxEntries, long maxBytes, Path directory, long maxDiskBytes) {
+        if (maxEntries <= 0 || maxBytes <= 0 || (directory != null && maxDiskBytes <= 0)) {
+            throw new IllegalArgumentException("Cache bounds must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.directory = directory;
+        this.maxDiskBytes = maxDiskBytes;
+
+        if (directory != null) {
+            try {
+                Files.createDirectories(directory);
+                loadDiskIndex();
+            } catch (IOException e) {
+                throw new RuntimeException("Cannot create cache directory: " + directory, e);
+            }
+        }
+    }
+
+    byte[] get(String key) {
+        long now = System.currentTimeMillis();
+
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt > now) {
+                    hits.incrementAndGet();
+                    return entry.value;
+                }
+                remove(key);
+            }
+        }
+
+        Entry stored = readFromDisk(key, now);
+        if (stored != null) {
+            hits.incrementAndGet();
+            putInMemory(key, stored);
+            return stored.value;
+        }
+
+        misses.incrementAndGet();
+        return null;
+    }
+
+    void put(String key, byte[] value, long expiresAt) {
+        if (expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+
+        Entry entry = new Entry(key, value, expiresAt);
+        putInMemory(key, entry);
+        writeToDisk(key, entry);
+    }
+
+    void invalidate(String key) {
+        synchronized (entries) {
+            remove(key);
+        }
+        if (directory != null) {
+            Path file = fileFor(key);
+            synchronized (diskIndex) {
+                forget(file.getFileName().toString());
+                delete(file);
+            }
+        }
+    }
+
+    long hits() {
+        return hits.get();
+    }
+
+    long misses() {
+        return misses.get();
+    }
+
+    long evictions() {
+        return evictions.get();
+    }
+
+    long diskEvictions() {
+        return diskEvictions.get();
+    }
+
+    long diskBytes() {
+        synchronized (diskIndex) {
+            return diskBytes;
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    long bytes() {
+        synchronized (entries) {
+            return bytes;
+        }
+    }
+
+    private void putInMemory(String key, Entry entry) {
+        if (entry.weight > maxBytes) {
+            return;
+        }
+
+        synchronized (entries) {
+            remove(key);
+            entries.put(key, entry);
+            bytes += entry.weight;
+
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while ((entries.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+                bytes -= eldest.next().getValue().weight;
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private void remove(String key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            bytes -= removed.weight;
+        }
+    }
+
+    // Disk layout: 8-byte big-endian expiry (epoch millis) followed by the value
+    private Entry readFromDisk(String key, long now) {
+        if (directory == null) {
+            return null;
+        }
+
+        Path file = fileFor(key);
+        String name = file.getFileName().toString();
+        try {
+            if (!Files.exists(file)) {
+                return null;
+            }
+            byte[] content = Files.readAllBytes(file);
+            long expiresAt = ByteBuffer.wrap(content, 0, HEADER_BYTES).getLong();
+
+            if (expiresAt <= now) {
+                synchronized (diskIndex) {
+                    // Unless a write has replaced the file since it was read
+                    DiskEntry current = diskIndex.get(name);
+                    if (current == null || current.expiresAt <= now) {
+                        forget(name);
+                        delete(file);
+                    }
+                }
+                return null;
+            }
+
+            synchronized (diskIndex) {
+                // Touch for LRU order; files written by another process are adopted
+                // unless a sweep has deleted the file since it was read
+                if (diskIndex.get(name) == null && Files.exists(file)) {
+                    index(name, new DiskEntry(content.length, expiresAt));
+                }
+            }
+            byte[] value = new byte[content.length - HEADER_BYTES];
+            System.arraycopy(content, HEADER_BYTES, value, 0, value.length);
+            return new Entry(key, value, expiresAt);
+        } catch (NoSuchFileException e) {
+            return null;                                          // deleted by a concurrent sweep
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Cache read failed for " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, Entry entry) {
+        if (directory == null) {
+            return;
+        }
+
+        long size = HEADER_BYTES + (long) entry.value.length;
+        if (size > maxDiskBytes) {
+            return;
+        }
+
+        Path file = fileFor(key);
+        Path tmp = null;
+        try {
+            tmp = Files.createTempFile(directory, "entry", ".tmp");
+            ByteBuffer content = ByteBuffer.allocate((int) size);
+            content.putLong(entry.expiresAt).put(entry.value);
+            Files.write(tmp, content.array());
+            synchronized (diskIndex) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                index(file.getFileName().toString(), new DiskEntry(size, entry.expiresAt));
+                sweep(System.currentTimeMillis());
+            }
+        } catch (IOException e) {
+            System.err.println("Cache write failed for " + file + ": " + e.getMessage());
+            if (tmp != null) {
+                delete(tmp);
+            }
+        }
+    }
+
+    // Called with the disk index locked
+    private void sweep(long now) {
+        Iterator<Map.Entry<String, DiskEntry>> files = diskIndex.entrySet().iterator();
+        while (files.hasNext()) {
+            Map.Entry<String, DiskEntry> file = files.next();
+            if (file.getValue().expiresAt <= now) {
+                diskBytes -= file.getValue().size;
+                files.remove();
+                delete(directory.resolve(file.getKey()));
+            }
+        }
+
+        Iterator<Map.Entry<String, DiskEntry>> eldest = diskIndex.entrySet().iterator();
+        while (diskBytes > maxDiskBytes && eldest.hasNext()) {
+            Map.Entry<String, DiskEntry> file = eldest.next();
+            diskBytes -= file.getValue().size;
+            eldest.remove();
+            delete(directory.resolve(file.getKey()));
+            diskEvictions.incrementAndGet();
+        }
+    }
+
+    private void index(String name, DiskEntry entry) {
+        forget(name);
+        diskIndex.put(name, entry);
+        diskBytes += entry.size;
+    }
+
+    private void forget(String name) {
+        DiskEntry removed = diskIndex.remove(name);
+        if (removed != null) {
+            diskBytes -= removed.size;
+        }
+    }
+
+    // Indexes the files left by a previous run, least recently modified first
+    private void loadDiskIndex() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> listing = Files.newDirectoryStream(directory)) {
+            for (Path file : listing) {
+                String name = file.getFileName().toString();
+                if (name.startsWith("entry") && name.endsWith(".tmp")) {
+                    delete(file);                                 // interrupted write
+                } else if (name.length() == 64 && Files.isRegularFile(file)) {
+                    files.add(file);
+                }
+            }
+        }
+        files.sort(Comparator.comparingLong(LruTtlStore::lastModified));
+
+        synchronized (diskIndex) {
+            for (Path file : files) {
+                byte[] header;
+                try (InputStream in = Files.newInputStream(file)) {
+                    header = in.readNBytes(HEADER_BYTES);
+                }
+                if (header.length < HEADER_BYTES) {
+                    delete(file);
+                    continue;
+                }
+                index(file.getFileName().toString(),
+                        new DiskEntry(Files.size(file), ByteBuffer.wrap(header).getLong()));
+            }
+            sweep(System.currentTimeMillis());
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class).lastModifiedTime().toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Cache delete failed: " + e.getMessage());
+        }
+    }
+
+    private Path fileFor(String key) {
+        return directory.resolve(sha256Hex(key.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    static String sha256Hex(byte[] data) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(data);
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,14 +1,9 @@
 package com.signpdfkit;
 
 import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.BiFunction;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.signpdfkit.SignPDFKit.DSS;
 import com.signpdfkit.SignPDFKit.Sign;
 import com.signpdfkit.SignPDFKit.SignatureType;
@@ -23,48 +18,9 @@ public class Main {
     public static void main(String[] args) {
         // Example usage
 
-        BiFunction<String, Map<String, Object>, String> signFunction = (digest, options) -> {
-            try {
-
-                // API endpoint
-                String url = "https://signpdfkit.com/api/sign";
-
-                // Build payload
-                ObjectMapper mapper = new ObjectMapper();
-                String jsonPayload = mapper.writeValueAsString(Map.of(
-                        "digest", digest,
-                        "email", options.get("email"),
-                        "passcode", options.get("passcode")
-                ));
-
-                // Build request
-                HttpClient client = HttpClient.newHttpClient();
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(URI.create(url))
-                        .header("Content-Type", "application/json")
-                        .POST(HttpRequest.BodyPublishers.ofString(jsonPayload))
-                        .build();
-
-                // Send request
-                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-
-                if (response.statusCode() < 200 || response.statusCode() >= 300) {
-                    throw new RuntimeException("HTTP Error: " + response.statusCode() + " - " + response.body());
-                }
-
-                // Parse JSON response
-                Map<String, Object> data = mapper.readValue(response.body(), Map.class);
-
-                if (!data.containsKey("cms")) {
-                    throw new RuntimeException("Invalid response: " + response.body());
-                }
-
-                return data.get("cms").toString();
-
-            } catch (Exception e) {
-                throw new RuntimeException("Error signing digest", e);
-            }
-        };
+        // Reusable remote signer; one instance shares its HTTP connections across signatures
+        RemoteSigner signFunction = new RemoteSigner(
+                new RemoteSigner.Options(URI.create("https://signpdfkit.com/api/sign")));
 
         Map<String, Object> options = new HashMap<>();
         options.put("email", "user@signpdfkit.com");
@@ -0,0 +1,61 @@
+package com.signpdfkit;
+
+/**
+ * Receives per-stage timings and outcomes from {@link SignPDFKit.Sign} and
+ * {@link SignPDFKit.Verify}. Callbacks run on the signing thread, so
+ * implementations must be thread-safe and cheap.
+ */
+public interface MetricsListener {
+
+    enum Stage {
+        /** calculate_digest; bytes is the pre-sign payload size */
+        DIGEST,
+        /** remote signing of the digest; bytes is the CMS size */
+        REMOTE_SIGN,
+        /** get_revocation_parameters plus OCSP/CRL fetching; bytes is the DSS payload size */
+        REVOCATION,
+        /** embed_cms */
+        EMBED,
+        /** verify; bytes is the result payload size */
+        VERIFY
+    }
+
+    MetricsListener NOOP = new MetricsListener() {
+    };
+
+    default void stage(Stage stage, long nanos, long bytes) {
+    }
+
+    /**
+     * One OCSP or CRL lookup; type is "ocsp" or "crl" as in the revocation items.
+     */
+    default void revocationFetch(String type, boolean cached, boolean success) {
+    }
+
+    default void signCompleted(int responseCode, long nanos) {
+    }
+
+    default void verifyCompleted(boolean success, long nanos) {
+    }
+
+    /**
+     * A {@link NativeGovernor} permit was granted after waiting; queueDepth is the
+     * caller's position in the wait queue, 0 when a permit was free.
+     */
+    default void governorWait(NativeGovernor.Lane lane, long waitNanos, int queueDepth) {
+    }
+
+    /**
+     * A {@link NativeGovernor} rejected a caller, either because the lane's queue
+     * was full or because the wait timed out.
+     */
+    default void governorRejected(NativeGovernor.Lane lane, boolean timedOut) {
+    }
+
+    /**
+     * A hedged request of a {@link ResilientSigner} won, and the request it raced
+     * completed nanos later.
+     */
+    default void hedgeSaved(long nanos) {
+    }
+}
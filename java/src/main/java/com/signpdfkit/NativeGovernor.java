@@ -0,0 +1,207 @@
+package com.signpdfkit;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounds how many threads are inside the native library and the network-bound
+ * stages at once.
+ *
+ * Each lane has a number of permits and a bounded wait queue. A caller arriving
+ * at a full queue is rejected immediately; a queued caller that does not get a
+ * permit within the lane's maximum wait is rejected too. Rejections surface as
+ * response_code 4 from signing and as a null result from verification, so excess
+ * load fails fast instead of piling up behind the native library.
+ *
+ * One governor may be shared by several {@link SignPDFKit.Sign} and
+ * {@link SignPDFKit.Verify} instances to bound the whole process.
+ */
+public class NativeGovernor {
+
+    public enum Lane {
+        /** calculate_digest, get_revocation_parameters, embed_cms and verify */
+        CPU,
+        /** remote signing and OCSP/CRL fetching */
+        NETWORK
+    }
+
+    /**
+     * Thrown when a lane's queue is full or the wait for a permit timed out.
+     */
+    public static class RejectedException extends RejectedExecutionException {
+        private final Lane lane;
+        private final boolean timedOut;
+
+        RejectedException(Lane lane, boolean timedOut) {
+            super(lane.name().toLowerCase() + (timedOut ? " permit wait timed out" : " queue full"));
+            this.lane = lane;
+            this.timedOut = timedOut;
+        }
+
+        public Lane lane() {
+            return lane;
+        }
+
+        public boolean timedOut() {
+            return timedOut;
+        }
+    }
+
+    /**
+     * A held permit, released on close.
+     */
+    public interface Permit extends AutoCloseable {
+        Permit NONE = () -> {
+        };
+
+        @Override
+        void close();
+    }
+
+    private static final class Gate {
+        final Semaphore permits;
+        final int maxQueue;
+        final long maxWaitNanos;
+        final AtomicInteger waiting = new AtomicInteger();
+        final AtomicInteger maxObservedQueue = new AtomicInteger();
+        final LongAdder acquired = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder timedOut = new LongAdder();
+        final LongAdder waitNanos = new LongAdder();
+
+        Gate(int permits, int maxQueue, Duration maxWait) {
+            this.permits = new Semaphore(permits, true);
+            this.maxQueue = maxQueue;
+            this.maxWaitNanos = maxWait.toNanos();
+        }
+    }
+
+    private final Map<Lane, Gate> gates = new EnumMap<>(Lane.class);
+
+    /**
+     * One CPU permit per core with a queue of four waiters per core, 64 network
+     * permits with a queue of 256, and at most 30 seconds of waiting.
+     */
+    public NativeGovernor() {
+        this(Runtime.getRuntime().availableProcessors(), 4 * Runtime.getRuntime().availableProcessors(),
+                64, 256, Duration.ofSeconds(30));
+    }
+
+    /**
+     * @param cpuPermits     concurrent native calls
+     * @param cpuQueue       callers allowed to wait for a CPU permit
+     * @param networkPermits concurrent remote signing/revocation stages
+     * @param networkQueue   callers allowed to wait for a network permit
+     * @param maxWait        longest wait for a permit before rejection
+     */
+    public NativeGovernor(int cpuPermits, int cpuQueue, int networkPermits, int networkQueue, Duration maxWait) {
+        if (cpuPermits < 1 || networkPermits < 1 || cpuQueue < 0 || networkQueue < 0) {
+            throw new IllegalArgumentException("permits must be positive and queues non-negative");
+        }
+        gates.put(Lane.CPU, new Gate(cpuPermits, cpuQueue, maxWait));
+        gates.put(Lane.NETWORK, new Gate(networkPermits, networkQueue, maxWait));
+    }
+
+    /**
+     * Takes a permit on the lane, waiting in its queue if none is free.
+     *
+     * @throws RejectedException if the queue is full or the wait times out
+     */
+    public Permit acquire(Lane lane) {
+        return acquire(lane, MetricsListener.NOOP);
+    }
+
+    Permit acquire(Lane lane, MetricsListener metrics) {
+        Gate gate = gates.get(lane);
+
+        if (!gate.permits.tryAcquire()) {
+            int depth = gate.waiting.incrementAndGet();
+            if (depth > gate.maxQueue) {
+                gate.waiting.decrementAndGet();
+                gate.rejected.increment();
+                metrics.governorRejected(lane, false);
+                throw new RejectedException(lane, false);
+            }
+            gate.maxObservedQueue.accumulateAndGet(depth, Math::max);
+
+            long start = System.nanoTime();
+            boolean granted;
+            try {
+                granted = gate.permits.tryAcquire(gate.maxWaitNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                granted = false;
+            } finally {
+                gate.waiting.decrementAndGet();
+            }
+
+            long waited = System.nanoTime() - start;
+            gate.waitNanos.add(waited);
+            if (!granted) {
+                gate.rejected.increment();
+                gate.timedOut.increment();
+                metrics.governorRejected(lane, true);
+                throw new RejectedException(lane, true);
+            }
+            metrics.governorWait(lane, waited, depth);
+        } else {
+            metrics.governorWait(lane, 0, 0);
+        }
+
+        gate.acquired.increment();
+        return new Permit() {
+            private boolean released;
+
+            @Override
+            public void close() {
+                if (!released) {
+                    released = true;
+                    gate.permits.release();
+                }
+            }
+        };
+    }
+
+    /**
+     * Callers currently waiting for a permit on the lane.
+     */
+    public int queueDepth(Lane lane) {
+        return gates.get(lane).waiting.get();
+    }
+
+    public int maxQueueDepth(Lane lane) {
+        return gates.get(lane).maxObservedQueue.get();
+    }
+
+    public int availablePermits(Lane lane) {
+        return gates.get(lane).permits.availablePermits();
+    }
+
+    public long acquired(Lane lane) {
+        return gates.get(lane).acquired.sum();
+    }
+
+    /**
+     * Rejections on the lane, both for a full queue and for timed out waits.
+     */
+    public long rejected(Lane lane) {
+        return gates.get(lane).rejected.sum();
+    }
+
+    public long timedOut(Lane lane) {
+        return gates.get(lane).timedOut.sum();
+    }
+
+    /**
+     * Total time callers spent waiting for permits on the lane.
+     */
+    public long totalWaitNanos(Lane lane) {
+        return gates.get(lane).waitNanos.sum();
+    }
+}
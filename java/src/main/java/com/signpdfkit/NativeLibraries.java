@@ -0,0 +1,118 @@
+package com.signpdfkit;
+
+import com.sun.jna.FunctionMapper;
+import com.sun.jna.Library;
+import com.sun.jna.Native;
+import com.sun.jna.NativeLibrary;
+import com.sun.jna.Pointer;
+
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide registry of loaded libsignpdfkit handles, keyed by the resolved
+ * library path, so every Sign/Verify instance shares one binding per library.
+ *
+ * With -Dsignpdfkit.directMapping=true the first library loaded is bound through
+ * JNA direct mapping (Native.register), which skips the interface proxy and its
+ * reflective dispatch on every call. A JVM class can only be registered against
+ * one library, so further libraries fall back to interface mapping.
+ */
+final class NativeLibraries {
+
+    private static final ConcurrentHashMap<String, SignPDFKit.SignPDFLibrary> LIBRARIES = new ConcurrentHashMap<>();
+
+    private NativeLibraries() {
+    }
+
+    static SignPDFKit.SignPDFLibrary load(String libraryPath) {
+        String resolved = Paths.get(libraryPath).toAbsolutePath().normalize().toString();
+        return LIBRARIES.computeIfAbsent(resolved, NativeLibraries::bind);
+    }
+
+    private static SignPDFKit.SignPDFLibrary bind(String libraryPath) {
+        if (Boolean.getBoolean("signpdfkit.directMapping") && DirectSignPDFLibrary.register(libraryPath)) {
+            return DirectSignPDFLibrary.INSTANCE;
+        }
+        return Native.load(libraryPath, SignPDFKit.SignPDFLibrary.class);
+    }
+
+    // Direct-mapped binding; the static natives are bound once by register(). They
+    // carry a 0 suffix so they don't clash with the interface methods, and the
+    // function mapper strips it to find the exported symbol.
+    static final class DirectSignPDFLibrary implements SignPDFKit.SignPDFLibrary {
+        static final DirectSignPDFLibrary INSTANCE = new DirectSignPDFLibrary();
+        private static final FunctionMapper STRIP_SUFFIX = (library, method) -> {
+            String name = method.getName();
+            return name.endsWith("0") ? name.substring(0, name.length() - 1) : name;
+        };
+        private static String registeredPath;
+
+        static synchronized boolean register(String libraryPath) {
+            if (registeredPath == null) {
+                NativeLibrary library = NativeLibrary.getInstance(libraryPath,
+                        Collections.singletonMap(Library.OPTION_FUNCTION_MAPPER, STRIP_SUFFIX));
+                Native.register(DirectSignPDFLibrary.class, library);
+                registeredPath = libraryPath;
+            }
+            return registeredPath.equals(libraryPath);
+        }
+
+        private static native Pointer calculate_digest0(String input_path, String image_path, String url,
+                String location, String reason, String contact_info, String field_id, String character,
+                int signature_type, int page, int field_type, int visibility,
+                double x, double y, double width, double height, int dss);
+
+        private static native Pointer get_revocation_parameters0(String cms);
+
+        private static native int embed_cms0(String pre_sign, String response_str, String output_path);
+
+        private static native int embed_cms0(Pointer pre_sign, String response_str, String output_path);
+
+        private static native int embed_cms0(Pointer pre_sign, Pointer response_str, String output_path);
+
+        private static native void free_c_string0(Pointer ptr);
+
+        private static native Pointer verify0(String input_path);
+
+        @Override
+        public Pointer calculate_digest(String input_path, String image_path, String url, String location,
+                                        String reason, String contact_info, String field_id, String character,
+                                        int signature_type, int page, int field_type, int visibility,
+                                        double x, double y, double width, double height, int dss) {
+            return calculate_digest0(input_path, image_path, url, location, reason, contact_info, field_id,
+                    character, signature_type, page, field_type, visibility, x, y, width, height, dss);
+        }
+
+        @Override
+        public Pointer get_revocation_parameters(String cms) {
+            return get_revocation_parameters0(cms);
+        }
+
+        @Override
+        public int embed_cms(String pre_sign, String response_str, String output_path) {
+            return embed_cms0(pre_sign, response_str, output_path);
+        }
+
+        @Override
+        public int embed_cms(Pointer pre_sign, String response_str, String output_path) {
+            return embed_cms0(pre_sign, response_str, output_path);
+        }
+
+        @Override
+        public int embed_cms(Pointer pre_sign, Pointer response_str, String output_path) {
+            return embed_cms0(pre_sign, response_str, output_path);
+        }
+
+        @Override
+        public void free_c_string(Pointer ptr) {
+            free_c_string0(ptr);
+        }
+
+        @Override
+        public Pointer verify(String input_path) {
+            return verify0(input_path);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.signpdfkit;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Opaque handle on the pre-sign payload returned by calculate_digest.
+ *
+ * The payload stays in the native buffer it was returned in and is handed back
+ * to embed_cms as-is, instead of being decoded to a Java String and re-encoded.
+ * The top-level response_code and data.digest are read by streaming the bytes
+ * through a JsonReader, so keys of the same name elsewhere are ignored. The
+ * native buffer is released with free_c_string on close. Payloads restored from
+ * a {@link PreparedSignature} live in JNA memory owned by the handle instead.
+ */
+final class PreSign implements AutoCloseable {
+
+    // Null when the handle owns pointer as JNA Memory
+    private final SignPDFKit.SignPDFLibrary lib;
+    private final Pointer pointer;
+    private final ByteBuffer payload;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private PreSign(SignPDFKit.SignPDFLibrary lib, Pointer pointer, int length) {
+        this.lib = lib;
+        this.pointer = pointer;
+        this.payload = pointer.getByteBuffer(0, length).asReadOnlyBuffer();
+    }
+
+    /**
+     * Takes ownership of a NUL-terminated string returned by calculate_digest.
+     * Returns null (after releasing it) when the payload is empty.
+     */
+    static PreSign wrap(SignPDFKit.SignPDFLibrary lib, Pointer pointer) {
+        if (pointer == null) {
+            return null;
+        }
+        int length = (int) pointer.indexOf(0, (byte) 0);
+        if (length <= 0) {
+            lib.free_c_string(pointer);
+            return null;
+        }
+        return new PreSign(lib, pointer, length);
+    }
+
+    /**
+     * Copies a payload previously read with {@link #toBytes()} back into a
+     * NUL-terminated native buffer.
+     */
+    static PreSign copyOf(byte[] payload) {
+        Memory memory = new Memory(payload.length + 1);
+        memory.write(0, payload, 0, payload.length);
+        memory.setByte(payload.length, (byte) 0);
+        return new PreSign(null, memory, payload.length);
+    }
+
+    Pointer pointer() {
+        return pointer;
+    }
+
+    int size() {
+        return payload.limit();
+    }
+
+    byte[] toBytes() {
+        byte[] bytes = new byte[payload.limit()];
+        payload.duplicate().get(bytes);
+        return bytes;
+    }
+
+    int responseCode() {
+        try (JsonReader reader = reader()) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if ("response_code".equals(reader.nextName())) {
+                    return reader.nextInt();
+                }
+                reader.skipValue();
+            }
+            throw new IllegalStateException("No response_code in pre-sign payload");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    String digest() {
+        try (JsonReader reader = reader()) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if ("data".equals(reader.nextName()) && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        if ("digest".equals(reader.nextName())) {
+                            return reader.nextString();
+                        }
+                        reader.skipValue();
+                    }
+                    reader.endObject();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            throw new IllegalStateException("No data.digest in pre-sign payload");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (released.compareAndSet(false, true)) {
+            if (lib != null) {
+                lib.free_c_string(pointer);
+            } else {
+                ((Memory) pointer).close();
+            }
+        }
+    }
+
+    // Streams the native payload; skipped values, such as the appearance, are never built as Strings
+    private JsonReader reader() {
+        ByteBuffer bytes = payload.duplicate();
+        return new JsonReader(new InputStreamReader(new InputStream() {
+            @Override
+            public int read() {
+                return bytes.hasRemaining() ? bytes.get() & 0xff : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (!bytes.hasRemaining()) {
+                    return -1;
+                }
+                int n = Math.min(len, bytes.remaining());
+                bytes.get(b, off, n);
+                return n;
+            }
+        }, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,213 @@
+package com.signpdfkit;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Token returned by {@link SignPDFKit.Sign#prepare}: the digest to be signed
+ * remotely plus the pre-sign state {@link SignPDFKit.Sign#complete} needs to
+ * embed the CMS once it arrives. Holds no native resources, so a token can wait
+ * for an approval of any length, and {@link #toJson()} lets it be persisted,
+ * e.g. in a {@link PreparedSignatureJournal}, and completed after a restart.
+ *
+ * The input document must stay in place until the token is completed.
+ */
+public final class PreparedSignature {
+
+    private final String id;
+    private final int responseCode;
+    private final String responseStatus;
+    private final String digest;
+    private final String outputPath;
+    private final String fieldId;
+    private final int dss;
+    private final long createdAt;
+    private final byte[] preSign;
+    private volatile boolean completed;
+
+    private PreparedSignature(String id, int responseCode, String responseStatus, String digest,
+                              String outputPath, String fieldId, int dss, long createdAt, byte[] preSign) {
+        this.id = id;
+        this.responseCode = responseCode;
+        this.responseStatus = responseStatus;
+        this.digest = digest;
+        this.outputPath = outputPath;
+        this.fieldId = fieldId;
+        this.dss = dss;
+        this.createdAt = createdAt;
+        this.preSign = preSign;
+    }
+
+    static PreparedSignature prepared(String digest, String outputPath, String fieldId, int dss, byte[] preSign) {
+        return new PreparedSignature(UUID.randomUUID().toString(), 0, "success", digest,
+                outputPath, fieldId, dss, System.currentTimeMillis(), preSign);
+    }
+
+    static PreparedSignature failed(int responseCode, String responseStatus, String outputPath) {
+        return new PreparedSignature(null, responseCode, responseStatus, null,
+                outputPath, null, SignPDFKit.DSS.NO, System.currentTimeMillis(), null);
+    }
+
+    public boolean isSuccess() {
+        return responseCode == 0;
+    }
+
+    /**
+     * Unique id of a successful token, null when preparation failed.
+     */
+    public String id() {
+        return id;
+    }
+
+    public int responseCode() {
+        return responseCode;
+    }
+
+    public String responseStatus() {
+        return responseStatus;
+    }
+
+    /**
+     * The digest to send to the remote signer.
+     */
+    public String digest() {
+        return digest;
+    }
+
+    public String outputPath() {
+        return outputPath;
+    }
+
+    public String fieldId() {
+        return fieldId;
+    }
+
+    public int dss() {
+        return dss;
+    }
+
+    /**
+     * Epoch milliseconds at which the document was prepared.
+     */
+    public long createdAt() {
+        return createdAt;
+    }
+
+    /**
+     * Whether this token was already completed successfully; it cannot be
+     * completed again.
+     */
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    void markCompleted() {
+        completed = true;
+    }
+
+    byte[] preSign() {
+        return preSign;
+    }
+
+    public String toJson() {
+        StringWriter out = new StringWriter(preSign == null ? 256 : 256 + preSign.length * 4 / 3);
+        try (JsonWriter writer = new JsonWriter(out)) {
+            writer.beginObject();
+            writer.name("id").value(id);
+            writer.name("response_code").value(responseCode);
+            writer.name("response_status").value(responseStatus);
+            writer.name("digest").value(digest);
+            writer.name("output_path").value(outputPath);
+            writer.name("field_id").value(fieldId);
+            writer.name("dss").value(dss);
+            writer.name("created_at").value(createdAt);
+            writer.name("pre_sign").value(preSign == null ? null : Base64.getEncoder().encodeToString(preSign));
+            writer.endObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Restores a token written by {@link #toJson()}.
+     *
+     * @throws IllegalArgumentException when the JSON is not a prepared signature
+     */
+    public static PreparedSignature fromJson(String json) {
+        String id = null;
+        int responseCode = -1;
+        String responseStatus = null;
+        String digest = null;
+        String outputPath = null;
+        String fieldId = null;
+        int dss = SignPDFKit.DSS.NO;
+        long createdAt = 0;
+        byte[] preSign = null;
+
+        try (JsonReader reader = new JsonReader(new StringReader(json))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (reader.peek() == JsonToken.NULL) {
+                    reader.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "id":
+                        id = reader.nextString();
+                        break;
+                    case "response_code":
+                        responseCode = reader.nextInt();
+                        break;
+                    case "response_status":
+                        responseStatus = reader.nextString();
+                        break;
+                    case "digest":
+                        digest = reader.nextString();
+                        break;
+                    case "output_path":
+                        outputPath = reader.nextString();
+                        break;
+                    case "field_id":
+                        fieldId = reader.nextString();
+                        break;
+                    case "dss":
+                        dss = reader.nextInt();
+                        break;
+                    case "created_at":
+                        createdAt = reader.nextLong();
+                        break;
+                    case "pre_sign":
+                        preSign = Base64.getDecoder().decode(reader.nextString());
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid prepared signature: " + e.getMessage(), e);
+        }
+
+        if (responseCode == 0 && (id == null || digest == null || outputPath == null || preSign == null)) {
+            throw new IllegalArgumentException("Invalid prepared signature: missing fields");
+        }
+        return new PreparedSignature(id, responseCode, responseStatus, digest,
+                outputPath, fieldId, dss, createdAt, preSign);
+    }
+
+    @Override
+    public String toString() {
+        return "PreparedSignature{id=" + id + ", responseCode=" + responseCode + ", fieldId=" + fieldId
+                + ", outputPath=" + outputPath + "}";
+    }
+}
@@ -0,0 +1,81 @@
+package com.signpdfkit;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Local journal of {@link PreparedSignature}s waiting for their CMS.
+ *
+ * Each pending token is one file in the directory, written atomically, so the
+ * journal survives a crash at any point. {@link SignPDFKit.Sign#prepare} adds
+ * tokens and a successful {@link SignPDFKit.Sign#complete} removes them; after
+ * a restart {@link #pending()} lists what is still awaiting a signature.
+ */
+public class PreparedSignatureJournal {
+
+    private static final String SUFFIX = ".prepared.json";
+
+    private final Path directory;
+
+    public PreparedSignatureJournal(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+    }
+
+    public void append(PreparedSignature token) throws IOException {
+        if (!token.isSuccess()) {
+            throw new IllegalArgumentException("Only successfully prepared signatures are journaled");
+        }
+        Path tmp = Files.createTempFile(directory, "prepared", ".tmp");
+        try {
+            Files.write(tmp, token.toJson().getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp, fileFor(token.id()), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    public boolean contains(String id) {
+        return Files.exists(fileFor(id));
+    }
+
+    public void remove(String id) throws IOException {
+        Files.deleteIfExists(fileFor(id));
+    }
+
+    /**
+     * Tokens still awaiting completion, oldest first. Unreadable entries are
+     * reported and skipped.
+     */
+    public List<PreparedSignature> pending() throws IOException {
+        List<PreparedSignature> tokens = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                try {
+                    tokens.add(PreparedSignature.fromJson(
+                            new String(Files.readAllBytes(file), StandardCharsets.UTF_8)));
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Skipping journal entry " + file + ": " + e.getMessage());
+                }
+            }
+        }
+        tokens.sort(Comparator.comparingLong(PreparedSignature::createdAt));
+        return tokens;
+    }
+
+    private Path fileFor(String id) {
+        // Ids are UUIDs; anything else must not escape the directory
+        if (id == null || !id.matches("[0-9a-fA-F-]+")) {
+            throw new IllegalArgumentException("Invalid prepared signature id: " + id);
+        }
+        return directory.resolve(id + SUFFIX);
+    }
+}
@@ -0,0 +1,294 @@
+package com.signpdfkit;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Remote digest signer over HTTP, usable as both the blocking signing function
+ * and an {@link SignPDFKit.AsyncSigner}.
+ *
+ * One HttpClient (HTTP/2 where the server offers it, pooled keep-alive
+ * connections otherwise) and one JSON codec are shared by every call. The
+ * email and passcode of the signer options are posted together with the
+ * digest; other option keys stay local:
+ *
+ *   POST endpoint        {"digest": "...", "email": ..., "passcode": ...}   -> {"cms": "..."}
+ *   POST batchEndpoint   {"digests": [...], "email": ..., "passcode": ...}  -> {"cms": [...]}
+ *
+ * When a batch endpoint is configured, digests from concurrent signPdf calls
+ * that share the same credentials are coalesced into micro-batches of up to
+ * maxBatchSize digests, each waiting at most linger for company. Closing the
+ * signer sends the batches still lingering and rejects later digests.
+ */
+public class RemoteSigner implements BiFunction<String, Map<String, Object>, String>,
+        SignPDFKit.AsyncSigner, AutoCloseable {
+
+    private static final Gson GSON = new Gson();
+
+    public static class Options {
+        public URI endpoint;
+        public URI batchEndpoint = null;
+        public int maxBatchSize = 32;
+        public Duration linger = Duration.ofMillis(5);
+        public Duration requestTimeout = Duration.ofSeconds(30);
+        public Duration connectTimeout = Duration.ofSeconds(10);
+
+        public Options(URI endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        public Options batchEndpoint(URI v) { this.batchEndpoint = v; return this; }
+        public Options maxBatchSize(int v) { this.maxBatchSize = v; return this; }
+        public Options linger(Duration v) { this.linger = v; return this; }
+        public Options requestTimeout(Duration v) { this.requestTimeout = v; return this; }
+        public Options connectTimeout(Duration v) { this.connectTimeout = v; return this; }
+    }
+
+    // The posted part of the signer options; immutable, so it can key the batches
+    private static final class Credentials {
+        final String email;
+        final String passcode;
+
+        Credentials(Map<String, Object> options) {
+            this.email = options == null ? null : Objects.toString(options.get("email"), null);
+            this.passcode = options == null ? null : Objects.toString(options.get("passcode"), null);
+        }
+
+        JsonObject payload() {
+            JsonObject payload = new JsonObject();
+            if (email != null) {
+                payload.addProperty("email", email);
+            }
+            if (passcode != null) {
+                payload.addProperty("passcode", passcode);
+            }
+            return payload;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Credentials)) {
+                return false;
+            }
+            Credentials other = (Credentials) o;
+            return Objects.equals(email, other.email) && Objects.equals(passcode, other.passcode);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(email, passcode);
+        }
+    }
+
+    private static final class Pending {
+        final String digest;
+        final CompletableFuture<String> result = new CompletableFuture<>();
+
+        Pending(String digest) {
+            this.digest = digest;
+        }
+    }
+
+    private final Options opts;
+    private final HttpClient client;
+    private final ScheduledExecutorService lingerTimer;
+    private final Map<Credentials, List<Pending>> batches = new HashMap<>();
+    // Guarded by batches
+    private boolean closed;
+
+    public RemoteSigner(Options opts) {
+        this.opts = opts;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(opts.connectTimeout)
+                .build();
+        this.lingerTimer = opts.batchEndpoint == null ? null : Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "signpdfkit-signer-linger");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public String apply(String digest, Map<String, Object> options) {
+        try {
+            return sign(digest, options).join();
+        } catch (CompletionException e) {
+            throw new RuntimeException("Error signing digest", e.getCause());
+        }
+    }
+
+    @Override
+    public CompletableFuture<String> sign(String digest, Map<String, Object> options) {
+        Credentials credentials = new Credentials(options);
+        if (opts.batchEndpoint == null) {
+            synchronized (batches) {
+                if (closed) {
+                    return CompletableFuture.failedFuture(new IllegalStateException("RemoteSigner is closed"));
+                }
+            }
+            return signOne(digest, credentials);
+        }
+
+        Pending pending = new Pending(digest);
+        List<Pending> full = null;
+
+        synchronized (batches) {
+            if (closed) {
+                return CompletableFuture.failedFuture(new IllegalStateException("RemoteSigner is closed"));
+            }
+            List<Pending> batch = batches.get(credentials);
+            if (batch == null) {
+                batch = new ArrayList<>(opts.maxBatchSize);
+                List<Pending> scheduled = batch;
+                lingerTimer.schedule(() -> flush(credentials, scheduled), opts.linger.toNanos(), TimeUnit.NANOSECONDS);
+                batches.put(credentials, batch);
+            }
+            batch.add(pending);
+            if (batch.size() >= opts.maxBatchSize) {
+                batches.remove(credentials);
+                full = batch;
+            }
+        }
+
+        if (full != null) {
+            signBatch(full, credentials);
+        }
+        return pending.result;
+    }
+
+    /**
+     * Rejects further digests and sends the batches still waiting for their
+     * linger to expire, so every digest already accepted completes.
+     */
+    @Override
+    public void close() {
+        Map<Credentials, List<Pending>> lingering;
+        synchronized (batches) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lingering = new HashMap<>(batches);
+            batches.clear();
+        }
+        if (lingerTimer != null) {
+            lingerTimer.shutdownNow();
+        }
+        lingering.forEach((credentials, batch) -> signBatch(batch, credentials));
+    }
+
+    private CompletableFuture<String> signOne(String digest, Credentials credentials) {
+        JsonObject payload = credentials.payload();
+        payload.addProperty("digest", digest);
+
+        return post(opts.endpoint, payload).thenApply(data -> {
+            JsonElement cms = data == null ? null : data.get("cms");
+            if (!isString(cms)) {
+                throw new RuntimeException("Invalid response: " + data);
+            }
+            return cms.getAsString();
+        });
+    }
+
+    // Called by the linger timer; a batch already sent because it filled up is skipped
+    private void flush(Credentials credentials, List<Pending> batch) {
+        synchronized (batches) {
+            if (batches.get(credentials) != batch) {
+                return;
+            }
+            batches.remove(credentials);
+        }
+        signBatch(batch, credentials);
+    }
+
+    // Runs on the caller or the linger timer; every digest of the batch is completed,
+    // exceptionally if anything fails, so no signPdf waits forever
+    private void signBatch(List<Pending> batch, Credentials credentials) {
+        try {
+            JsonObject payload = credentials.payload();
+            JsonArray digests = new JsonArray(batch.size());
+            for (Pending pending : batch) {
+                digests.add(pending.digest);
+            }
+            payload.add("digests", digests);
+
+            post(opts.batchEndpoint, payload).whenComplete((data, error) -> complete(batch, data, error));
+        } catch (RuntimeException e) {
+            fail(batch, e);
+        }
+    }
+
+    private static void complete(List<Pending> batch, JsonObject data, Throwable error) {
+        try {
+            if (error != null) {
+                fail(batch, error);
+                return;
+            }
+            JsonElement cms = data == null ? null : data.get("cms");
+            if (cms == null || !cms.isJsonArray() || cms.getAsJsonArray().size() != batch.size()) {
+                fail(batch, new RuntimeException("Invalid batch response: " + data));
+                return;
+            }
+
+            JsonArray signatures = cms.getAsJsonArray();
+            for (int i = 0; i < batch.size(); i++) {
+                JsonElement signature = signatures.get(i);
+                if (isString(signature)) {
+                    batch.get(i).result.complete(signature.getAsString());
+                } else {
+                    batch.get(i).result.completeExceptionally(
+                            new RuntimeException("Invalid batch response: no CMS at index " + i));
+                }
+            }
+        } catch (RuntimeException e) {
+            fail(batch, e);
+        }
+    }
+
+    // Completing an already completed digest is a no-op, so this is safe after partial success
+    private static void fail(List<Pending> batch, Throwable error) {
+        for (Pending pending : batch) {
+            pending.result.completeExceptionally(error);
+        }
+    }
+
+    private static boolean isString(JsonElement element) {
+        return element != null && element.isJsonPrimitive() && element.getAsJsonPrimitive().isString();
+    }
+
+    private CompletableFuture<JsonObject> post(URI uri, JsonObject payload) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(uri)
+                .timeout(opts.requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(GSON.toJson(payload)))
+                .build();
+
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(response -> {
+            if (response.statusCode() < 200 || response.statusCode() >= 300) {
+                throw new RuntimeException("HTTP Error: " + response.statusCode() + " - " + response.body());
+            }
+            return GSON.fromJson(response.body(), JsonObject.class);
+        });
+    }
+}
@@ -0,0 +1,417 @@
+package com.signpdfkit;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * Deadlines, hedging, circuit breaking and retries around one or more remote
+ * digest signers, e.g. {@link RemoteSigner}s for several endpoints of the same
+ * signing service. Usable wherever a signing function or
+ * {@link SignPDFKit.AsyncSigner} is accepted.
+ *
+ * Every call completes within the deadline. With hedging on, a duplicate
+ * request goes to the next endpoint when the first has not answered after the
+ * recent p95 latency, and the first CMS wins. The losing request is left to
+ * finish so the tail latency the hedge removed can be recorded. An endpoint's
+ * breaker opens after a run of consecutive failures and lets one trial call
+ * through after the open duration. When every attempt of a round fails, the
+ * call is retried after an exponential backoff with full jitter.
+ */
+public class ResilientSigner implements BiFunction<String, Map<String, Object>, String>,
+        SignPDFKit.AsyncSigner, AutoCloseable {
+
+    public static class Options {
+        public Duration deadline = Duration.ofSeconds(30);
+        public boolean hedging = false;
+        public double hedgePercentile = 95.0;
+        public Duration minHedgeDelay = Duration.ofMillis(20);
+        public Duration maxHedgeDelay = Duration.ofSeconds(5);
+        public int maxRetries = 2;
+        public Duration retryBackoff = Duration.ofMillis(100);
+        public int breakerFailures = 5;
+        public Duration breakerOpenDuration = Duration.ofSeconds(30);
+
+        public Options deadline(Duration v) { this.deadline = v; return this; }
+        public Options hedging(boolean v) { this.hedging = v; return this; }
+        public Options hedgePercentile(double v) { this.hedgePercentile = v; return this; }
+        public Options minHedgeDelay(Duration v) { this.minHedgeDelay = v; return this; }
+        public Options maxHedgeDelay(Duration v) { this.maxHedgeDelay = v; return this; }
+        public Options maxRetries(int v) { this.maxRetries = v; return this; }
+        public Options retryBackoff(Duration v) { this.retryBackoff = v; return this; }
+        public Options breakerFailures(int v) { this.breakerFailures = v; return this; }
+        public Options breakerOpenDuration(Duration v) { this.breakerOpenDuration = v; return this; }
+    }
+
+    public static class CircuitOpenException extends RuntimeException {
+        CircuitOpenException() {
+            super("All signing endpoints are unavailable (circuit open)");
+        }
+    }
+
+    // Consecutive-failure breaker of one endpoint
+    private final class Endpoint {
+        final SignPDFKit.AsyncSigner signer;
+        private int failures;
+        private long openUntil;
+        private boolean trialInFlight;
+
+        Endpoint(SignPDFKit.AsyncSigner signer) {
+            this.signer = signer;
+        }
+
+        synchronized boolean tryAcquire(long now) {
+            if (failures < opts.breakerFailures) {
+                return true;
+            }
+            if (now < openUntil || trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+            return true;
+        }
+
+        synchronized void succeeded() {
+            failures = 0;
+            trialInFlight = false;
+        }
+
+        synchronized void failed(long now) {
+            trialInFlight = false;
+            if (++failures >= opts.breakerFailures) {
+                openUntil = now + opts.breakerOpenDuration.toNanos();
+            }
+        }
+    }
+
+    // State of one sign() call across its attempts
+    private final class Call {
+        final String digest;
+        final Map<String, Object> options;
+        final CompletableFuture<String> result = new CompletableFuture<>();
+        final long start = System.nanoTime();
+        final long deadline = start + opts.deadline.toNanos();
+        int retries;
+        // Rounds started so far and the attempts of the current one still running
+        int round;
+        int outstanding;
+        ScheduledFuture<?> hedge;
+        // Set under the call's lock by the attempt that completed result
+        long winnerAt;
+        boolean hedgeWon;
+
+        Call(String digest, Map<String, Object> options) {
+            this.digest = digest;
+            this.options = options;
+        }
+    }
+
+    private static final int WINDOW = 1024;
+    private static final int RECOMPUTE_EVERY = 64;
+
+    private final Options opts;
+    private final Endpoint[] endpoints;
+    private final ScheduledExecutorService timer;
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder tailSavedNanos = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder deadlinesExceeded = new LongAdder();
+    private volatile MetricsListener metrics = MetricsListener.NOOP;
+
+    // Latencies of recent successful attempts, for the hedge delay
+    private final long[] window = new long[WINDOW];
+    private int windowSize;
+    private int windowNext;
+    private int sinceRecompute;
+    private volatile long hedgeDelayNanos;
+
+    public ResilientSigner(List<? extends SignPDFKit.AsyncSigner> signers, Options opts) {
+        if (signers == null || signers.isEmpty()) {
+            throw new IllegalArgumentException("At least one signer is required");
+        }
+        this.opts = opts;
+        this.endpoints = new Endpoint[signers.size()];
+        for (int i = 0; i < endpoints.length; i++) {
+            endpoints[i] = new Endpoint(signers.get(i));
+        }
+        this.hedgeDelayNanos = opts.maxHedgeDelay.toNanos();
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "signpdfkit-signer-resilience");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Deadlines of calls that finished early must not pile up in the queue
+        timer.setRemoveOnCancelPolicy(true);
+        this.timer = timer;
+    }
+
+    /**
+     * Reports hedged calls and the latency the winning hedge saved.
+     */
+    public ResilientSigner metrics(MetricsListener listener) {
+        this.metrics = listener == null ? MetricsListener.NOOP : listener;
+        return this;
+    }
+
+    @Override
+    public String apply(String digest, Map<String, Object> options) {
+        try {
+            return sign(digest, options).join();
+        } catch (CompletionException e) {
+            throw new RuntimeException("Error signing digest", e.getCause());
+        }
+    }
+
+    @Override
+    public CompletableFuture<String> sign(String digest, Map<String, Object> options) {
+        Call call = new Call(digest, options);
+        ScheduledFuture<?> timeout = timer.schedule(() -> {
+            if (call.result.completeExceptionally(
+                    new TimeoutException("Remote signing deadline of " + opts.deadline + " exceeded"))) {
+                deadlinesExceeded.increment();
+            }
+        }, opts.deadline.toNanos(), TimeUnit.NANOSECONDS);
+        call.result.whenComplete((value, error) -> {
+            timeout.cancel(false);
+            cancelHedge(call);
+        });
+        startRound(call);
+        return call.result;
+    }
+
+    private void startRound(Call call) {
+        int primary = acquire(next.getAndIncrement(), -1);
+        if (primary < 0) {
+            call.result.completeExceptionally(new CircuitOpenException());
+            return;
+        }
+        int round;
+        synchronized (call) {
+            round = ++call.round;
+            call.outstanding = 1;
+        }
+
+        if (opts.hedging && endpoints.length > 1) {
+            ScheduledFuture<?> hedge = timer.schedule(() -> hedge(call, round, primary),
+                    hedgeDelayNanos, TimeUnit.NANOSECONDS);
+            synchronized (call) {
+                call.hedge = hedge;
+            }
+        }
+        attempt(call, endpoints[primary], false);
+    }
+
+    // Joins the round only while it is still running; a round that already failed has moved on to a retry
+    private void hedge(Call call, int round, int primary) {
+        int hedge;
+        synchronized (call) {
+            if (call.result.isDone() || call.round != round || call.outstanding == 0) {
+                return;
+            }
+            hedge = acquire(primary + 1, primary);
+            if (hedge < 0) {
+                return;
+            }
+            call.outstanding++;
+        }
+        hedges.increment();
+        attempt(call, endpoints[hedge], true);
+    }
+
+    private static void cancelHedge(Call call) {
+        ScheduledFuture<?> hedge;
+        synchronized (call) {
+            hedge = call.hedge;
+            call.hedge = null;
+        }
+        if (hedge != null) {
+            hedge.cancel(false);
+        }
+    }
+
+    // Index of the first endpoint from 'from' on whose breaker admits a call, or -1
+    private int acquire(int from, int exclude) {
+        long now = System.nanoTime();
+        for (int i = 0; i < endpoints.length; i++) {
+            int index = Math.floorMod(from + i, endpoints.length);
+            if (index != exclude && endpoints[index].tryAcquire(now)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private void attempt(Call call, Endpoint endpoint, boolean hedged) {
+        long started = System.nanoTime();
+        CompletableFuture<String> cms;
+        try {
+            cms = endpoint.signer.sign(call.digest, call.options);
+        } catch (RuntimeException e) {
+            cms = CompletableFuture.failedFuture(e);
+        }
+
+        cms.whenComplete((value, error) -> {
+            long now = System.nanoTime();
+            if (error == null && value != null) {
+                endpoint.succeeded();
+                recordLatency(now - started);
+                boolean won;
+                synchronized (call) {
+                    won = call.result.complete(value);
+                    if (won) {
+                        call.winnerAt = now;
+                        call.hedgeWon = hedged;
+                    }
+                }
+                if (won && hedged) {
+                    hedgeWins.increment();
+                } else if (!won && !hedged) {
+                    recordSaved(call, now);
+                }
+                return;
+            }
+
+            endpoint.failed(now);
+            boolean roundFailed;
+            synchronized (call) {
+                roundFailed = --call.outstanding == 0;
+            }
+            if (roundFailed && !call.result.isDone()) {
+                cancelHedge(call);
+                retry(call, error == null ? new IllegalStateException("Signer returned no CMS") : error);
+            }
+        });
+    }
+
+    // A later success of the losing attempt shows how long the call would have taken
+    private void recordSaved(Call call, long now) {
+        long saved;
+        synchronized (call) {
+            if (!call.hedgeWon) {
+                return;
+            }
+            saved = Math.min(now, call.deadline) - call.winnerAt;
+        }
+        if (saved > 0) {
+            tailSavedNanos.add(saved);
+            metrics.hedgeSaved(saved);
+        }
+    }
+
+    private void retry(Call call, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        long backoff;
+        synchronized (call) {
+            if (call.retries >= opts.maxRetries) {
+                backoff = -1;
+            } else {
+                long cap = opts.retryBackoff.toNanos() << Math.min(call.retries, 20);
+                backoff = ThreadLocalRandom.current().nextLong(cap + 1);
+                if (System.nanoTime() + backoff >= call.deadline) {
+                    backoff = -1;
+                } else {
+                    call.retries++;
+                }
+            }
+        }
+        if (backoff < 0) {
+            call.result.completeExceptionally(cause);
+            return;
+        }
+        retries.increment();
+        timer.schedule(() -> {
+            if (!call.result.isDone()) {
+                startRound(call);
+            }
+        }, backoff, TimeUnit.NANOSECONDS);
+    }
+
+    private void recordLatency(long nanos) {
+        long[] snapshot = null;
+        synchronized (window) {
+            window[windowNext] = nanos;
+            windowNext = (windowNext + 1) % WINDOW;
+            windowSize = Math.min(WINDOW, windowSize + 1);
+            if (++sinceRecompute >= RECOMPUTE_EVERY || windowSize < RECOMPUTE_EVERY) {
+                sinceRecompute = 0;
+                snapshot = Arrays.copyOf(window, windowSize);
+            }
+        }
+        if (snapshot != null) {
+            Arrays.sort(snapshot);
+            int index = (int) Math.ceil(opts.hedgePercentile / 100.0 * snapshot.length) - 1;
+            long percentile = snapshot[Math.max(0, Math.min(snapshot.length - 1, index))];
+            hedgeDelayNanos = Math.max(opts.minHedgeDelay.toNanos(), Math.min(opts.maxHedgeDelay.toNanos(), percentile));
+        }
+    }
+
+    /**
+     * Current delay before a hedged request is sent.
+     */
+    public Duration hedgeDelay() {
+        return Duration.ofNanos(hedgeDelayNanos);
+    }
+
+    public long hedges() {
+        return hedges.sum();
+    }
+
+    /**
+     * Calls answered by the hedged request rather than the first one.
+     */
+    public long hedgeWins() {
+        return hedgeWins.sum();
+    }
+
+    /**
+     * Total latency removed by winning hedges, measured against the completion
+     * of the request they raced (capped at the deadline).
+     */
+    public Duration tailLatencySaved() {
+        return Duration.ofNanos(tailSavedNanos.sum());
+    }
+
+    public long retries() {
+        return retries.sum();
+    }
+
+    public long deadlinesExceeded() {
+        return deadlinesExceeded.sum();
+    }
+
+    /**
+     * Endpoints whose breaker is currently open.
+     */
+    public List<Integer> openCircuits() {
+        long now = System.nanoTime();
+        List<Integer> open = new ArrayList<>();
+        for (int i = 0; i < endpoints.length; i++) {
+            synchronized (endpoints[i]) {
+                if (endpoints[i].failures >= opts.breakerFailures && now < endpoints[i].openUntil) {
+                    open.add(i);
+                }
+            }
+        }
+        return open;
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+    }
+}
@@ -0,0 +1,257 @@
+package com.signpdfkit;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+
+/**
+ * Cache for OCSP responses and CRLs fetched by {@link SignPDFKit.Sign#getRevocation}.
+ *
+ * OCSP entries are keyed by responder URL plus request bytes, CRL entries by
+ * distribution point URL. Entries stay fresh until the response's nextUpdate, or
+ * thisUpdate plus the default TTL when nextUpdate is absent.
+ */
+public class RevocationCache {
+
+    private static final DateTimeFormatter GENERALIZED_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private final LruTtlStore store;
+    private final Duration defaultTtl;
+
+    public RevocationCache() {
+        this(1024, 64L * 1024 * 1024, null, Duration.ofMinutes(5));
+    }
+
+    /**
+     * Cache whose persistent tier, if any, holds up to four times maxBytes.
+     *
+     * @param maxEntries    maximum number of responses kept in memory
+     * @param maxBytes      maximum total size of responses kept in memory
+     * @param diskDirectory optional directory for the persistent tier, may be null
+     * @param defaultTtl    freshness used when a response carries no nextUpdate
+     */
+    public RevocationCache(int maxEntries, long maxBytes, Path diskDirectory, Duration defaultTtl) {
+        this(maxEntries, maxBytes, diskDirectory, 4 * maxBytes, defaultTtl);
+    }
+
+    /**
+     * @param maxDiskBytes  maximum total size of the persistent tier; least
+     *                      recently used files are deleted beyond it
+     */
+    public RevocationCache(int maxEntries, long maxBytes, Path diskDirectory, long maxDiskBytes,
+                           Duration defaultTtl) {
+        this.store = new LruTtlStore(maxEntries, maxBytes, diskDirectory, maxDiskBytes);
+        this.defaultTtl = defaultTtl;
+    }
+
+    public byte[] getOcsp(String url, byte[] request) {
+        return store.get(ocspKey(url, request));
+    }
+
+    public void putOcsp(String url, byte[] request, byte[] response) {
+        long expiresAt = ocspFreshUntil(response);
+        if (expiresAt > 0) {
+            store.put(ocspKey(url, request), response, expiresAt);
+        }
+    }
+
+    public byte[] getCrl(String url) {
+        return store.get(crlKey(url));
+    }
+
+    public void putCrl(String url, byte[] crlDer) {
+        long expiresAt = crlFreshUntil(crlDer);
+        if (expiresAt > 0) {
+            store.put(crlKey(url), crlDer, expiresAt);
+        }
+    }
+
+    public void invalidateCrl(String url) {
+        store.invalidate(crlKey(url));
+    }
+
+    public long hits() {
+        return store.hits();
+    }
+
+    public long misses() {
+        return store.misses();
+    }
+
+    public long evictions() {
+        return store.evictions();
+    }
+
+    /**
+     * Files deleted from the persistent tier to stay within its size limit.
+     */
+    public long diskEvictions() {
+        return store.diskEvictions();
+    }
+
+    public long diskBytes() {
+        return store.diskBytes();
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    public long memoryBytes() {
+        return store.bytes();
+    }
+
+    private static String ocspKey(String url, byte[] request) {
+        return "ocsp " + url + " " + Base64.getEncoder().encodeToString(request);
+    }
+
+    private static String crlKey(String url) {
+        return "crl " + url;
+    }
+
+    /**
+     * Earliest nextUpdate over the SingleResponses of a successful OCSPResponse,
+     * or 0 when the response is not successful or cannot be parsed.
+     */
+    long ocspFreshUntil(byte[] response) {
+        try {
+            DerReader ocspResponse = DerReader.sequence(response);
+            ocspResponse.next();                                  // responseStatus
+            if (ocspResponse.length != 1 || response[ocspResponse.valueOffset] != 0) {
+                return 0;
+            }
+            ocspResponse.next();                                  // [0] responseBytes
+            DerReader responseBytes = ocspResponse.inner().enter();
+            responseBytes.next();                                 // responseType
+            responseBytes.next();                                 // response OCTET STRING
+            DerReader basic = responseBytes.inner().enter();
+            basic.next();                                         // tbsResponseData
+            DerReader tbs = basic.inner();
+            tbs.next();
+            if (tbs.tag == 0xA0) {                                // [0] version
+                tbs.next();
+            }
+            tbs.next();                                           // producedAt
+            tbs.next();                                           // responses
+            DerReader responses = tbs.inner();
+
+            long freshUntil = Long.MAX_VALUE;
+            while (responses.next()) {
+                DerReader single = responses.inner();
+                single.next();                                    // certID
+                single.next();                                    // certStatus
+                single.next();                                    // thisUpdate
+                long thisUpdate = single.time();
+                long nextUpdate = thisUpdate + defaultTtl.toMillis();
+                if (single.next() && single.tag == 0xA0) {        // [0] nextUpdate
+                    DerReader explicit = single.inner();
+                    explicit.next();
+                    nextUpdate = explicit.time();
+                }
+                freshUntil = Math.min(freshUntil, nextUpdate);
+            }
+            return freshUntil == Long.MAX_VALUE ? 0 : freshUntil;
+        } catch (RuntimeException e) {
+            System.err.println("Cannot read OCSP response validity: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * nextUpdate of a DER CertificateList, or thisUpdate plus the default TTL.
+     * Only the TBSCertList header is read, so large CRLs are not fully parsed.
+     */
+    long crlFreshUntil(byte[] crlDer) {
+        try {
+            DerReader certList = DerReader.sequence(crlDer);
+            certList.next();                                      // tbsCertList
+            DerReader tbs = certList.inner();
+            tbs.next();
+            if (tbs.tag == 0x02) {                                // version
+                tbs.next();
+            }
+            tbs.next();                                           // issuer
+            tbs.next();                                           // thisUpdate
+            long thisUpdate = tbs.time();
+            if (tbs.next() && (tbs.tag == 0x17 || tbs.tag == 0x18)) {
+                return tbs.time();
+            }
+            return thisUpdate + defaultTtl.toMillis();
+        } catch (RuntimeException e) {
+            System.err.println("Cannot read CRL validity: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    // Minimal DER walker over a byte range; next() advances to the following TLV
+    private static final class DerReader {
+        private final byte[] data;
+        private int position;
+        private final int end;
+
+        int tag;
+        int length;
+        int valueOffset;
+
+        private DerReader(byte[] data, int start, int end) {
+            this.data = data;
+            this.position = start;
+            this.end = end;
+        }
+
+        static DerReader sequence(byte[] data) {
+            DerReader outer = new DerReader(data, 0, data.length);
+            outer.next();
+            return outer.inner();
+        }
+
+        boolean next() {
+            if (position >= end) {
+                return false;
+            }
+            tag = data[position++] & 0xff;
+            int len = data[position++] & 0xff;
+            if (len >= 0x80) {
+                int count = len & 0x7f;
+                len = 0;
+                for (int i = 0; i < count; i++) {
+                    len = (len << 8) | (data[position++] & 0xff);
+                }
+            }
+            if (len < 0 || position + len > end) {
+                throw new IllegalArgumentException("Truncated DER element");
+            }
+            length = len;
+            valueOffset = position;
+            position += len;
+            return true;
+        }
+
+        DerReader inner() {
+            return new DerReader(data, valueOffset, valueOffset + length);
+        }
+
+        // Steps into the single element contained in the current range
+        DerReader enter() {
+            next();
+            return inner();
+        }
+
+        long time() {
+            String value = new String(data, valueOffset, length, StandardCharsets.US_ASCII);
+            if (tag == 0x17) {                                    // UTCTime YYMMDDHHMMSSZ
+                int year = Integer.parseInt(value.substring(0, 2));
+                value = (year < 50 ? "20" : "19") + value;
+            } else if (tag != 0x18) {
+                throw new IllegalArgumentException("Expected a time value, found tag " + tag);
+            }
+            return LocalDateTime.parse(value.substring(0, 14), GENERALIZED_TIME)
+                    .toInstant(ZoneOffset.UTC)
+                    .toEpochMilli();
+        }
+    }
+}
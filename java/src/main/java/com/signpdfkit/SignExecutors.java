@@ -0,0 +1,77 @@
+package com.signpdfkit;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors used by the asynchronous and pipelined SignPDFKit APIs.
+ *
+ * Virtual threads are used on Java 21 or newer, through the multi-release
+ * jar; set -Dsignpdfkit.virtualThreads=true to make them the default executor.
+ */
+public final class SignExecutors {
+
+    private static volatile Executor defaultExecutor;
+
+    private SignExecutors() {
+    }
+
+    public static boolean virtualThreadsSupported() {
+        return VirtualThreads.supported();
+    }
+
+    /**
+     * One new virtual thread per task. Before Java 21 this falls back to one
+     * pooled daemon platform thread per concurrent task, named signpdfkit-task-N.
+     */
+    public static ExecutorService newVirtualThreadExecutor() {
+        ExecutorService executor = VirtualThreads.newExecutor();
+        if (executor != null) {
+            return executor;
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "signpdfkit-task-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Fixed-size pool of daemon threads named signpdfkit-{name}-N.
+     */
+    public static ExecutorService newPlatformPool(String name, int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "signpdfkit-" + name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Shared executor used by signPdfAsync/verifyAsync when none is given.
+     */
+    public static Executor defaultExecutor() {
+        Executor executor = defaultExecutor;
+        if (executor == null) {
+            synchronized (SignExecutors.class) {
+                executor = defaultExecutor;
+                if (executor == null) {
+                    executor = createDefaultExecutor();
+                    defaultExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    private static Executor createDefaultExecutor() {
+        if (Boolean.getBoolean("signpdfkit.virtualThreads") && virtualThreadsSupported()) {
+            return newVirtualThreadExecutor();
+        }
+        return newPlatformPool("async", Math.max(4, 2 * Runtime.getRuntime().availableProcessors()));
+    }
+}
@@ -1,23 +1,45 @@
 package com.signpdfkit;
 
 import com.sun.jna.Library;
-import com.sun.jna.Native;
+import com.sun.jna.Memory;
 import com.sun.jna.Pointer;
-import com.google.gson.Gson;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * SignPDFKit - Java implementation of PDF signing and verification
@@ -48,29 +70,50 @@ public class SignPDFKit {
         public static final int YES = 1;
     }
 
+    public enum PartialRevocationPolicy {
+        /** Embed the OCSP/CRL responses that arrived before the deadline */
+        EMBED_AVAILABLE,
+        /** Fail the signature unless every revocation response arrived */
+        FAIL
+    }
+
+    /**
+     * Non-blocking counterpart of the digest signing BiFunction: returns the CMS
+     * for a digest without holding a thread while the remote signer responds.
+     */
+    @FunctionalInterface
+    public interface AsyncSigner {
+        CompletableFuture<String> sign(String digest, Map<String, Object> options);
+    }
+
+    // Native entry points of libsignpdfkit
+    interface SignPDFLibrary extends Library {
+        Pointer calculate_digest(String input_path, String image_path, String url, String location, 
+                               String reason, String contact_info, String field_id, String character, 
+                               int signature_type, int page, int field_type, int visibility, 
+                               double x, double y, double width, double height, int dss);
+        
+        Pointer get_revocation_parameters(String cms);
+        int embed_cms(String pre_sign, String response_str, String output_path);
+        int embed_cms(Pointer pre_sign, String response_str, String output_path);
+        int embed_cms(Pointer pre_sign, Pointer response_str, String output_path);
+        void free_c_string(Pointer ptr);
+        Pointer verify(String input_path);
+    }
+
     // Base class
     private static abstract class SignPDFKitBase {
-        protected interface SignPDFLibrary extends Library {
-            Pointer calculate_digest(String input_path, String image_path, String url, String location, 
-                                   String reason, String contact_info, String field_id, String character, 
-                                   int signature_type, int page, int field_type, int visibility, 
-                                   double x, double y, double width, double height, int dss);
-            
-            Pointer get_revocation_parameters(String cms);
-            int embed_cms(String pre_sign, String response_str, String output_path);
-            void free_c_string(Pointer ptr);
-            Pointer verify(String input_path);
-        }
-        
         protected SignPDFLibrary lib;
-        private static String libraryPathCache = null;
-        protected Gson gson = new Gson();
+        private static final Map<String, String> libraryPathCache = new ConcurrentHashMap<>();
+        protected MetricsListener metrics = MetricsListener.NOOP;
+        protected NativeGovernor governor;
+
+        protected NativeGovernor.Permit permit(NativeGovernor.Lane lane) {
+            return governor == null ? NativeGovernor.Permit.NONE : governor.acquire(lane, metrics);
+        }
         
         protected static String getLibraryPath(String libDir) {
-            if (libraryPathCache == null) {
-                libraryPathCache = calculateLibraryPath(libDir);
-            }
-            return libraryPathCache;
+            return libraryPathCache.computeIfAbsent(libDir, SignPDFKitBase::calculateLibraryPath);
         }
         
         private static String calculateLibraryPath(String libDir) {
@@ -142,6 +185,10 @@ public class SignPDFKit {
         }
         
         protected void initializeFFI(String libDir) {
+            lib = loadLibrary(libDir);
+        }
+
+        protected static SignPDFLibrary loadLibrary(String libDir) {
             String libraryPath = getLibraryPath(libDir);
             File libFile = new File(libraryPath);
             
@@ -149,8 +196,8 @@ public class SignPDFKit {
                 throw new RuntimeException("Native library not found: " + libraryPath);
             }
             
-            // Load the library using JNA
-            lib = Native.load(libraryPath, SignPDFLibrary.class);
+            // Load the library using JNA, shared with every other instance using it
+            return NativeLibraries.load(libraryPath);
         }
     }
 
@@ -158,146 +205,430 @@ public class SignPDFKit {
     public static class Sign extends SignPDFKitBase {
         private String libDir;
         private BiFunction<String, Map<String, Object>, String> customFunction;
+        private AsyncSigner asyncFunction;
         private Map<String, Object> options;
         private HttpClient httpClient;
+        private RevocationCache revocationCache;
+        private Duration revocationRequestTimeout = Duration.ofSeconds(10);
+        private Duration revocationCallTimeout = Duration.ofSeconds(30);
+        private long crlMaxBytes = 64L * 1024 * 1024;
+        private Duration crlTimeout;
+        private PreparedSignatureJournal journal;
+        // Ids of the tokens being completed right now, so two copies cannot embed at once
+        private final Set<String> completing = ConcurrentHashMap.newKeySet();
+        private PartialRevocationPolicy partialRevocationPolicy = PartialRevocationPolicy.EMBED_AVAILABLE;
+
+        private static final ConcurrentHashMap<String, CompletableFuture<byte[]>> IN_FLIGHT = new ConcurrentHashMap<>();
+
+        private static class RevocationIncompleteException extends RuntimeException {
+            RevocationIncompleteException(String message) {
+                super(message);
+            }
+        }
         
         public Sign(String libDir, BiFunction<String, Map<String, Object>, String> signDigestFunc, 
                    Map<String, Object> kwargs) {
+            this(loadLibrary(libDir), signDigestFunc, kwargs);
             this.libDir = libDir;
+        }
+
+        // Binds to an already loaded library, e.g. an in-process fake in the benchmarks
+        Sign(SignPDFLibrary lib, BiFunction<String, Map<String, Object>, String> signDigestFunc,
+             Map<String, Object> kwargs) {
+            this.lib = lib;
             this.customFunction = signDigestFunc;
             this.options = kwargs;
             this.httpClient = HttpClient.newBuilder()
                     .version(HttpClient.Version.HTTP_1_1)
                     .build();
-            this.initializeFFI(this.libDir);
+        }
+
+        // Library-bound counterpart of createAsyncSigner
+        static Sign async(SignPDFLibrary lib, AsyncSigner signDigestFunc, Map<String, Object> kwargs) {
+            Sign sign = new Sign(lib, null, kwargs);
+            sign.asyncFunction = signDigestFunc;
+            return sign;
+        }
+
+        // Private so implicitly typed lambdas passed to the public constructor stay
+        // unambiguous; use SignPDFKit.createAsyncSigner instead
+        private Sign(String libDir, AsyncSigner signDigestFunc, Map<String, Object> kwargs) {
+            this(libDir, (BiFunction<String, Map<String, Object>, String>) null, kwargs);
+            this.asyncFunction = signDigestFunc;
         }
         
+        /**
+         * Reuses OCSP responses and CRLs across signatures until their nextUpdate.
+         * Pass null to fetch revocation data on every signature again.
+         */
+        public Sign revocationCache(RevocationCache cache) {
+            this.revocationCache = cache;
+            return this;
+        }
+
+        /**
+         * Reports per-stage timings, payload sizes, revocation fetches and outcome
+         * codes, e.g. to an {@link HdrMetricsListener}.
+         */
+        public Sign metrics(MetricsListener listener) {
+            this.metrics = listener == null ? MetricsListener.NOOP : listener;
+            return this;
+        }
+
+        /**
+         * Bounds concurrent native calls and remote signing/revocation stages. A
+         * rejected signature returns response_code 4. Pass null to run unbounded.
+         */
+        public Sign governor(NativeGovernor governor) {
+            this.governor = governor;
+            return this;
+        }
+
+        /**
+         * Client used for OCSP and CRL requests, e.g. one routed through a proxy
+         * or shared with other components.
+         */
+        public Sign httpClient(HttpClient client) {
+            this.httpClient = client;
+            return this;
+        }
+
+        /**
+         * Timeouts for revocation fetching: each OCSP/CRL request is bounded by
+         * perRequest, and one getRevocation call waits at most perCall overall.
+         */
+        public Sign revocationTimeouts(Duration perRequest, Duration perCall) {
+            this.revocationRequestTimeout = perRequest;
+            this.revocationCallTimeout = perCall;
+            return this;
+        }
+
+        /**
+         * Limits for CRL downloads: larger CRLs are dropped as soon as they cross
+         * maxBytes of DER, and each download is bounded by timeout instead of the
+         * per-request revocation timeout. Pass a null timeout to keep the latter.
+         */
+        public Sign crlLimits(long maxBytes, Duration timeout) {
+            this.crlMaxBytes = maxBytes;
+            this.crlTimeout = timeout;
+            return this;
+        }
+
+        /**
+         * Persists every token returned by {@link #prepare} until it is completed,
+         * so pending signatures survive a restart. Pass null to keep none.
+         */
+        public Sign journal(PreparedSignatureJournal journal) {
+            this.journal = journal;
+            return this;
+        }
+
+        /**
+         * Decides what happens when some revocation responses did not arrive in
+         * time: embed what arrived, or fail the signature.
+         */
+        public Sign partialRevocationPolicy(PartialRevocationPolicy policy) {
+            this.partialRevocationPolicy = policy;
+            return this;
+        }
+
         // SignPDFKit.java - Updated getRevocation method
         public String getRevocation(String cms, int dss) {
             try {
-                Pointer resultPtr = lib.get_revocation_parameters(cms);
-                String resultStr = resultPtr.getString(0);
-                lib.free_c_string(resultPtr);
+                DssPayload payload = buildRevocation(cms, dss, revocationCache);
+                return payload == null ? null : payload.toJson();
+            } catch (RevocationIncompleteException e) {
+                System.err.println("Error in getRevocation: " + e.getMessage());
+                return null;
+            }
+        }
+
+        private DssPayload buildRevocation(String cms, int dss, RevocationCache cache) {
+            try {
+                String resultStr = null;
+                try (NativeGovernor.Permit cpu = permit(NativeGovernor.Lane.CPU)) {
+                    JfrEvents.NativeCall event = JfrEvents.NativeCall.start();
+                    try {
+                        Pointer resultPtr = lib.get_revocation_parameters(cms);
+                        resultStr = resultPtr.getString(0);
+                        lib.free_c_string(resultPtr);
+                    } catch (RuntimeException | Error e) {
+                        event.fail(e);
+                        throw e;
+                    } finally {
+                        event.finish("get_revocation_parameters", null, cms.length(),
+                                resultStr == null ? 0 : resultStr.length(), resultStr == null ? -1 : 0);
+                    }
+                }
                 
                 if (resultStr == null || resultStr.isEmpty()) {
                     return null;
                 }
                 
-                System.out.println("Raw revocation response: " + resultStr); // Debug
-                
-                JsonElement element = gson.fromJson(resultStr, JsonElement.class);
-                JsonObject jsonData = new JsonObject();
-                jsonData.addProperty("cms", cms);
-                jsonData.add("ocsp", new JsonArray());
-                jsonData.add("crl", new JsonArray());
+                DssPayload payload = new DssPayload(cms);
                 
                 if (dss == DSS.YES) {
-                    if (element.isJsonArray()) {
-                        // Handle JSON array response
-                        processRevocationData(element.getAsJsonArray(), jsonData);
-                    } else if (element.isJsonObject() && element.getAsJsonObject().has("data")) {
-                        // Handle JSON object with data field
-                        JsonObject dataObj = element.getAsJsonObject();
-                        if (dataObj.get("data").isJsonArray()) {
-                            processRevocationData(dataObj.getAsJsonArray("data"), jsonData);
-                        }
+                    List<RevocationItem> items = readRevocationParameters(resultStr);
+                    try (NativeGovernor.Permit network = permit(NativeGovernor.Lane.NETWORK)) {
+                        processRevocationData(items, payload, cache);
                     }
                 }
                 
-                return gson.toJson(jsonData);
-                
+                return payload;
+
+            } catch (RevocationIncompleteException | NativeGovernor.RejectedException e) {
+                throw e;
             } catch (Exception e) {
                 System.err.println("Error in getRevocation: " + e.getMessage());
                 e.printStackTrace();
                 return null;
             }
         }
+
+        // One entry of get_revocation_parameters; request is only set for OCSP
+        private static final class RevocationItem {
+            String type;
+            String url;
+            String request;
+        }
+
+        // Accepts either a bare array of items or an object with a "data" array
+        private static List<RevocationItem> readRevocationParameters(String json) throws IOException {
+            List<RevocationItem> items = new ArrayList<>();
+            try (JsonReader reader = new JsonReader(new StringReader(json))) {
+                if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        if ("data".equals(reader.nextName()) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                            readRevocationItems(reader, items);
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                } else if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                    readRevocationItems(reader, items);
+                }
+            }
+            return items;
+        }
+
+        private static void readRevocationItems(JsonReader reader, List<RevocationItem> items) throws IOException {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                RevocationItem item = new RevocationItem();
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String name = reader.nextName();
+                    if (reader.peek() != JsonToken.STRING) {
+                        reader.skipValue();
+                    } else if ("type".equals(name)) {
+                        item.type = reader.nextString();
+                    } else if ("url".equals(name)) {
+                        item.url = reader.nextString();
+                    } else if ("request".equals(name)) {
+                        item.request = reader.nextString();
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+                items.add(item);
+            }
+            reader.endArray();
+        }
         
-        private void processRevocationData(JsonArray data, JsonObject jsonData) {
-            for (JsonElement itemElement : data) {
-                JsonObject item = itemElement.getAsJsonObject();
-                String type = item.get("type").getAsString();
-                
-                if ("ocsp".equals(type)) {
-                    processOcspItem(item, jsonData);
-                } else if ("crl".equals(type)) {
-                    processCrlItem(item, jsonData);
+        // Fetches all items concurrently, then waits for them up to the call deadline
+        private void processRevocationData(List<RevocationItem> data, DssPayload payload, RevocationCache cache) {
+            List<CompletableFuture<byte[]>> ocspFetches = new ArrayList<>();
+            List<CompletableFuture<byte[]>> crlFetches = new ArrayList<>();
+
+            for (RevocationItem item : data) {
+                if ("ocsp".equals(item.type)) {
+                    ocspFetches.add(processOcspItem(item, cache));
+                } else if ("crl".equals(item.type)) {
+                    crlFetches.add(processCrlItem(item, cache));
+                }
+            }
+
+            List<CompletableFuture<byte[]>> all = new ArrayList<>(ocspFetches);
+            all.addAll(crlFetches);
+
+            try {
+                CompletableFuture.allOf(all.toArray(new CompletableFuture[0]))
+                        .get(revocationCallTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                System.err.println("Revocation fetch deadline of " + revocationCallTimeout + " exceeded");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                // Individual fetches report their own failures and complete with null
+            }
+
+            int missing = addCompleted(ocspFetches, payload::addOcsp)
+                    + addCompleted(crlFetches, payload::addCrl);
+
+            if (missing > 0 && partialRevocationPolicy == PartialRevocationPolicy.FAIL) {
+                throw new RevocationIncompleteException(
+                        missing + " of " + all.size() + " revocation responses missing");
+            }
+        }
+
+        private static int addCompleted(List<CompletableFuture<byte[]>> fetches, Consumer<byte[]> target) {
+            int missing = 0;
+            for (CompletableFuture<byte[]> fetch : fetches) {
+                byte[] der = fetch.getNow(null);
+                if (der != null) {
+                    target.accept(der);
+                } else {
+                    missing++;
                 }
             }
+            return missing;
+        }
+
+        /**
+         * Coalesces identical in-flight fetches across every signer in the JVM, so
+         * concurrent signatures sharing a chain issue one request per URL. The key
+         * carries the request's limits, so a fetch is only shared by callers that
+         * would bound it the same way, never cut short by another's timeout.
+         */
+        private static CompletableFuture<byte[]> singleFlight(String key, Supplier<CompletableFuture<byte[]>> fetch) {
+            CompletableFuture<byte[]> created = new CompletableFuture<>();
+            CompletableFuture<byte[]> existing = IN_FLIGHT.putIfAbsent(key, created);
+            if (existing != null) {
+                return existing;
+            }
+
+            try {
+                fetch.get().whenComplete((result, error) -> {
+                    IN_FLIGHT.remove(key, created);
+                    if (error != null) {
+                        created.completeExceptionally(error);
+                    } else {
+                        created.complete(result);
+                    }
+                });
+            } catch (RuntimeException e) {
+                IN_FLIGHT.remove(key, created);
+                created.completeExceptionally(e);
+            }
+            return created;
         }
         
-        private void processOcspItem(JsonObject item, JsonObject jsonData) {
+        private void recordFetch(JfrEvents.RevocationFetch event, String type, String url, byte[] der, boolean cached) {
+            event.finish(type, url, der, cached);
+            metrics.revocationFetch(type, cached, der != null);
+        }
+
+        private CompletableFuture<byte[]> processOcspItem(RevocationItem item, RevocationCache cache) {
             try {
-                String requestB64 = item.get("request").getAsString();
-                String url = item.get("url").getAsString();
+                String requestB64 = item.request;
+                String url = item.url;
+                JfrEvents.RevocationFetch event = JfrEvents.RevocationFetch.start();
                 
                 byte[] ocspRequestDer = Base64.getDecoder().decode(requestB64);
+
+                if (cache != null) {
+                    byte[] cached = cache.getOcsp(url, ocspRequestDer);
+                    if (cached != null) {
+                        recordFetch(event, "ocsp", url, cached, true);
+                        return CompletableFuture.completedFuture(cached);
+                    }
+                }
                 
                 HttpRequest request = HttpRequest.newBuilder()
                         .uri(URI.create(url))
+                        .timeout(revocationRequestTimeout)
                         .header("Content-Type", "application/ocsp-request")
                         .header("Accept", "application/ocsp-response")
                         .POST(HttpRequest.BodyPublishers.ofByteArray(ocspRequestDer))
                         .build();
-                
-                HttpResponse<byte[]> response = httpClient.send(request, 
-                        HttpResponse.BodyHandlers.ofByteArray());
-                
-                if (response.statusCode() == 200) {
-                    String ocspResponseB64 = Base64.getEncoder().encodeToString(response.body());
-                    jsonData.getAsJsonArray("ocsp").add(ocspResponseB64);
-                } else {
-                    System.err.println("OCSP request failed with status: " + response.statusCode());
-                }
-                
+
+                String key = "ocsp " + revocationRequestTimeout.toMillis() + " " + url + " " + requestB64;
+                return singleFlight(key, () -> httpClient
+                        .sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                        .orTimeout(revocationRequestTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                        .thenApply(response -> {
+                            if (response.statusCode() != 200) {
+                                System.err.println("OCSP request failed with status: " + response.statusCode());
+                                return null;
+                            }
+                            return response.body();
+                        }))
+                        // Outside the single flight, so every waiting signer's cache is filled
+                        .thenApply(der -> {
+                            if (der != null && cache != null) {
+                                cache.putOcsp(url, ocspRequestDer, der);
+                            }
+                            return der;
+                        })
+                        .exceptionally(e -> {
+                            System.err.println("OCSP request failed: " + e.getMessage());
+                            return null;
+                        })
+                        .whenComplete((der, e) -> recordFetch(event, "ocsp", url, der, false));
+
             } catch (Exception e) {
                 System.err.println("OCSP request failed: " + e.getMessage());
+                return CompletableFuture.completedFuture(null);
             }
         }
         
-        private void processCrlItem(JsonObject item, JsonObject jsonData) {
+        private CompletableFuture<byte[]> processCrlItem(RevocationItem item, RevocationCache cache) {
             try {
-                String url = item.get("url").getAsString();
+                String url = item.url;
+                JfrEvents.RevocationFetch event = JfrEvents.RevocationFetch.start();
+
+                if (cache != null) {
+                    byte[] cached = cache.getCrl(url);
+                    if (cached != null) {
+                        recordFetch(event, "crl", url, cached, true);
+                        return CompletableFuture.completedFuture(cached);
+                    }
+                }
                 
+                Duration timeout = crlTimeout != null ? crlTimeout : revocationRequestTimeout;
                 HttpRequest request = HttpRequest.newBuilder()
                         .uri(URI.create(url))
+                        .timeout(timeout)
                         .GET()
                         .build();
-                
-                HttpResponse<byte[]> response = httpClient.send(request, 
-                        HttpResponse.BodyHandlers.ofByteArray());
-                
-                if (response.statusCode() == 200) {
-                    byte[] content = response.body();
-                    byte[] crlDer = extractCrlDer(content);
-                    String crlB64 = Base64.getEncoder().encodeToString(crlDer);
-                    jsonData.getAsJsonArray("crl").add(crlB64);
-                } else {
-                    System.err.println("CRL request failed with status: " + response.statusCode());
-                }
-                
+
+                return singleFlight("crl " + timeout.toMillis() + " " + crlMaxBytes + " " + url, () -> httpClient
+                        .sendAsync(request, CrlDecoder.bodyHandler(crlMaxBytes))
+                        .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                        .thenApply(response -> {
+                            if (response.statusCode() != 200) {
+                                System.err.println("CRL request failed with status: " + response.statusCode());
+                                return null;
+                            }
+                            return response.body();
+                        }))
+                        .thenApply(der -> {
+                            if (der != null && cache != null) {
+                                cache.putCrl(url, der);
+                            }
+                            return der;
+                        })
+                        .exceptionally(e -> {
+                            System.err.println("CRL request failed: " + e.getMessage());
+                            return null;
+                        })
+                        .whenComplete((der, e) -> recordFetch(event, "crl", url, der, false));
+
             } catch (Exception e) {
                 System.err.println("CRL request failed: " + e.getMessage());
+                return CompletableFuture.completedFuture(null);
             }
         }
         
-        private byte[] extractCrlDer(byte[] content) {
-            String contentStr = new String(content);
-            
-            if (contentStr.contains("BEGIN X509 CRL")) {
-                String[] lines = contentStr.split("\n");
-                StringBuilder pemBody = new StringBuilder();
-                
-                for (String line : lines) {
-                    if (!line.startsWith("---")) {
-                        pemBody.append(line.trim());
-                    }
-                }
-                
-                return Base64.getDecoder().decode(pemBody.toString());
+        static byte[] extractCrlDer(byte[] content) {
+            try {
+                return CrlDecoder.decode(content, Long.MAX_VALUE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
-            
-            return content;
         }
 
         public static class SignPdfOptions {
@@ -342,102 +673,674 @@ public class SignPDFKit {
             public SignPdfOptions width(double v) { this.width = v; return this; }
             public SignPdfOptions height(double v) { this.height = v; return this; }
             public SignPdfOptions dss(int v) { this.dss = v; return this; }
+
+            // Copy of these options pointing at other files, used by the staged APIs
+            SignPdfOptions withPaths(String inputPath, String outputPath) {
+                return new SignPdfOptions(inputPath, outputPath)
+                        .imagePath(imagePath).url(url).location(location).reason(reason)
+                        .contactInfo(contactInfo).fieldId(fieldId).character(character)
+                        .signatureType(signatureType).page(page).fieldType(fieldType)
+                        .visibility(visibility).x(x).y(y).width(width).height(height).dss(dss);
+            }
         }
 
         
         public String signPdf(SignPdfOptions opts) {
-            JsonObject jsonData = new JsonObject();
-            jsonData.addProperty("response_code", 0);
-            jsonData.addProperty("response_status", "success");
+            return signPdfResult(opts).toJson();
+        }
+
+        /**
+         * Typed variant of {@link #signPdf(SignPdfOptions)}.
+         */
+        public SignResult signPdfResult(SignPdfOptions opts) {
+            return sign(new SignJob(opts));
+        }
+
+        // The blocking pipeline behind every path-based signPdf
+        private SignResult sign(SignJob job) {
+            try {
+                if (calculateDigestStage(job) && signDigestStage(job)) {
+                    embedStage(job);
+                }
+                return job.result(job.opts.outputPath);
+            } finally {
+                finish(job);
+            }
+        }
+
+        /**
+         * In-memory variants of {@link #signPdf}: the document is read from the
+         * input and the signed result written to the output. The inputPath and
+         * outputPath of opts are ignored; the wrapper stages the bytes in tmpfs
+         * files for the native library and deletes them before returning.
+         */
+        public String signPdf(byte[] input, OutputStream output, SignPdfOptions opts) {
+            return signPdfResult(ByteBuffer.wrap(input), output, opts).toJson();
+        }
+
+        public String signPdf(ByteBuffer input, OutputStream output, SignPdfOptions opts) {
+            return signPdfResult(input, output, opts).toJson();
+        }
+
+        public String signPdf(InputStream input, OutputStream output, SignPdfOptions opts) {
+            return signPdfResult(input, output, opts).toJson();
+        }
+
+        public SignResult signPdfResult(byte[] input, OutputStream output, SignPdfOptions opts) {
+            return signPdfResult(ByteBuffer.wrap(input), output, opts);
+        }
+
+        public SignResult signPdfResult(ByteBuffer input, OutputStream output, SignPdfOptions opts) {
+            try (StagingArea staging = new StagingArea()) {
+                return signStaged(staging, staging.write(input), output,
+                        (inputPath, outputPath) -> new SignJob(opts.withPaths(inputPath, outputPath)));
+            } catch (IOException e) {
+                return stagingFailure(e);
+            }
+        }
+
+        public SignResult signPdfResult(InputStream input, OutputStream output, SignPdfOptions opts) {
+            try (StagingArea staging = new StagingArea()) {
+                return signStaged(staging, staging.write(input), output,
+                        (inputPath, outputPath) -> new SignJob(opts.withPaths(inputPath, outputPath)));
+            } catch (IOException e) {
+                return stagingFailure(e);
+            }
+        }
+
+        // The in-memory pipeline; jobs builds the job for the staged input and output paths
+        private SignResult signStaged(StagingArea staging, Path input, OutputStream output,
+                                      BiFunction<String, String, SignJob> jobs) throws IOException {
+            Path signed = staging.reserve();
+            SignJob job = jobs.apply(input.toString(), signed.toString());
+
+            try {
+                if (calculateDigestStage(job) && signDigestStage(job) && embedStage(job)) {
+                    StagingArea.transfer(signed, output);
+                }
+                return job.result(null);
+            } finally {
+                finish(job);
+            }
+        }
+
+        private SignResult stagingFailure(IOException e) {
+            return new SignResult(4, "Failed when process PDF: " + e.getMessage(), null, e);
+        }
+
+        /**
+         * Signs one document with a {@link SigningProfile}: appearance, metadata
+         * and DSS settings come from the profile, and revocation data is served
+         * from the profile's cache when still fresh.
+         */
+        public String signPdf(SigningProfile profile, String inputPath, String outputPath) {
+            return signPdfResult(profile, inputPath, outputPath).toJson();
+        }
+
+        public SignResult signPdfResult(SigningProfile profile, String inputPath, String outputPath) {
+            return sign(new SignJob(profile, inputPath, outputPath));
+        }
+
+        /**
+         * In-memory variant of {@link #signPdf(SigningProfile, String, String)}.
+         */
+        public SignResult signPdfResult(SigningProfile profile, InputStream input, OutputStream output) {
+            try (StagingArea staging = new StagingArea()) {
+                return signStaged(staging, staging.write(input), output,
+                        (inputPath, outputPath) -> new SignJob(profile, inputPath, outputPath));
+            } catch (IOException e) {
+                return stagingFailure(e);
+            }
+        }
+
+        public CompletableFuture<String> signPdfAsync(SigningProfile profile, String inputPath, String outputPath,
+                                                      Executor executor) {
+            return signAsync(new SignJob(profile, inputPath, outputPath), executor);
+        }
+
+        /**
+         * One field of a multi-field signing call: its appearance and position,
+         * and optionally a signer other than this Sign's own. The inputPath and
+         * outputPath of the options are ignored.
+         */
+        public static class FieldSpec {
+            final SignPdfOptions options;
+            AsyncSigner signer;
+            Map<String, Object> signerOptions;
+
+            public FieldSpec(SignPdfOptions options) {
+                this.options = options;
+            }
+
+            public FieldSpec signer(AsyncSigner signer, Map<String, Object> signerOptions) {
+                this.signer = signer;
+                this.signerOptions = signerOptions;
+                return this;
+            }
+        }
+
+        /**
+         * Signs several fields of one document in the given order and writes the
+         * final document to outputPath, instead of chaining signPdf calls through
+         * intermediate output files.
+         *
+         * Every field is an incremental update over the previous signature, so the
+         * fields are signed one after another. Intermediates are staged in tmpfs
+         * and each is deleted once the next field is embedded. All specs are
+         * validated before the first remote signature is requested. A failure
+         * reports the response_code of the failing field and its fieldId.
+         */
+        public String signFields(String inputPath, String outputPath, List<FieldSpec> fields) {
+            return signFieldsResult(inputPath, outputPath, fields).toJson();
+        }
+
+        public SignResult signFieldsResult(String inputPath, String outputPath, List<FieldSpec> fields) {
+            if (inputPath == null || outputPath == null ||
+                !inputPath.toLowerCase().endsWith(".pdf") ||
+                !outputPath.toLowerCase().endsWith(".pdf")) {
+
+                return new SignResult(3, "Input parameters is incorrect", null);
+            }
+            if (!Files.isRegularFile(Paths.get(inputPath))) {
+                return new SignResult(5, "PDF File not found", null);
+            }
+
+            try (StagingArea staging = new StagingArea()) {
+                return signFieldsStaged(staging, inputPath, outputPath, fields);
+            } catch (IOException e) {
+                return stagingFailure(e);
+            }
+        }
+
+        /**
+         * In-memory variant of {@link #signFields(String, String, List)}.
+         */
+        public SignResult signFieldsResult(InputStream input, OutputStream output, List<FieldSpec> fields) {
+            try (StagingArea staging = new StagingArea()) {
+                Path signed = staging.reserve();
+                SignResult result = signFieldsStaged(staging, staging.write(input).toString(),
+                        signed.toString(), fields);
+                if (result.isSuccess()) {
+                    StagingArea.transfer(signed, output);
+                }
+                return new SignResult(result.responseCode(), result.responseStatus(), null, result.error());
+            } catch (IOException e) {
+                return stagingFailure(e);
+            }
+        }
+
+        private SignResult signFieldsStaged(StagingArea staging, String inputPath, String outputPath,
+                                            List<FieldSpec> fields) throws IOException {
+            SignResult invalid = validateFields(fields);
+            if (invalid != null) {
+                return invalid;
+            }
+
+            String current = inputPath;
+            Path previous = null;
+            for (int i = 0; i < fields.size(); i++) {
+                FieldSpec field = fields.get(i);
+                Path intermediate = i == fields.size() - 1 ? null : staging.reserve();
+                String target = intermediate == null ? outputPath : intermediate.toString();
+
+                SignJob job = new SignJob(field.options.withPaths(current, target));
+                job.signer = field.signer;
+                job.signerOptions = field.signerOptions;
+                try {
+                    if (!(calculateDigestStage(job) && signDigestStage(job) && embedStage(job))) {
+                        return new SignResult(job.responseCode,
+                                "Field " + field.options.fieldId + ": " + job.responseStatus, null, job.error);
+                    }
+                } finally {
+                    finish(job);
+                }
+
+                if (previous != null) {
+                    staging.delete(previous);
+                }
+                previous = intermediate;
+                current = target;
+            }
+            return new SignResult(0, "success", outputPath);
+        }
+
+        // Rejects specs that would only fail after earlier fields were remotely signed
+        private static SignResult validateFields(List<FieldSpec> fields) {
+            if (fields == null || fields.isEmpty()) {
+                return new SignResult(3, "Input parameters is incorrect", null);
+            }
+
+            Set<String> fieldIds = new HashSet<>();
+            for (FieldSpec field : fields) {
+                if (field == null || field.options == null || field.options.fieldId == null ||
+                    !fieldIds.add(field.options.fieldId)) {
+
+                    return new SignResult(3, "Input parameters is incorrect", null);
+                }
+                if (field.options.visibility == Visibility.VISIBLE_IMAGE &&
+                    (field.options.imagePath == null || !Files.isRegularFile(Paths.get(field.options.imagePath)))) {
+
+                    return new SignResult(6, "Field " + field.options.fieldId + ": Visualization Image not found", null);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Signs a batch of documents as a three-stage pipeline. Digest calculation,
+         * remote signing and revocation/embedding each run on their own bounded pool,
+         * so the stages overlap across documents. Results are returned in input order
+         * using the same response_code/response_status shape as {@link #signPdf}.
+         */
+        public List<String> signBatch(List<SignPdfOptions> batch) {
+            int cores = Runtime.getRuntime().availableProcessors();
+            return signBatch(batch, cores, cores * 4, cores);
+        }
+
+        public List<String> signBatch(List<SignPdfOptions> batch, int digestThreads,
+                                      int signThreads, int embedThreads) {
+            ExecutorService digestPool = SignExecutors.newPlatformPool("digest", digestThreads);
+            ExecutorService signPool = SignExecutors.newPlatformPool("sign", signThreads);
+            ExecutorService embedPool = SignExecutors.newPlatformPool("embed", embedThreads);
+
+            // Caps the documents in flight so queued jobs never hold more than a few
+            // pre-sign payloads per worker, regardless of the batch size
+            Semaphore inFlight = new Semaphore(2 * (digestThreads + signThreads + embedThreads));
+            List<CompletableFuture<String>> futures = new ArrayList<>(batch.size());
+
+            try {
+                for (SignPdfOptions opts : batch) {
+                    inFlight.acquireUninterruptibly();
+                    SignJob job = new SignJob(opts);
+
+                    CompletableFuture<String> future = CompletableFuture
+                            .supplyAsync(() -> calculateDigestStage(job), digestPool)
+                            .thenApplyAsync(ok -> ok && signDigestStage(job), signPool)
+                            .thenApplyAsync(ok -> {
+                                if (ok) {
+                                    embedStage(job);
+                                }
+                                return job.result(opts.outputPath).toJson();
+                            }, embedPool)
+                            .whenComplete((result, error) -> {
+                                finish(job);
+                                inFlight.release();
+                            });
+                    futures.add(future);
+                }
+
+                List<String> results = new ArrayList<>(futures.size());
+                for (CompletableFuture<String> future : futures) {
+                    results.add(future.handle((result, error) -> {
+                        if (error == null) {
+                            return result;
+                        }
+                        return new SignResult(4, "Failed when process PDF: " + error.getMessage(), null).toJson();
+                    }).join());
+                }
+                return results;
+            } finally {
+                digestPool.shutdown();
+                signPool.shutdown();
+                embedPool.shutdown();
+            }
+        }
+
+        public CompletableFuture<String> signPdfAsync(SignPdfOptions opts) {
+            return signPdfAsync(opts, SignExecutors.defaultExecutor());
+        }
+
+        /**
+         * Asynchronous variant of {@link #signPdf}. Native work runs on the given
+         * executor; with an {@link AsyncSigner} no thread is held while waiting for
+         * the remote signature.
+         */
+        public CompletableFuture<String> signPdfAsync(SignPdfOptions opts, Executor executor) {
+            return signAsync(new SignJob(opts), executor);
+        }
+
+        private CompletableFuture<String> signAsync(SignJob job, Executor executor) {
+            return CompletableFuture
+                    .supplyAsync(() -> calculateDigestStage(job), executor)
+                    .thenCompose(ok -> ok ? signDigestAsync(job, executor) : CompletableFuture.completedFuture(false))
+                    .thenApplyAsync(ok -> {
+                        if (ok) {
+                            embedStage(job);
+                        }
+                        return job.result(job.opts.outputPath).toJson();
+                    }, executor)
+                    .whenComplete((result, error) -> finish(job));
+        }
+
+        /**
+         * First half of a deferred signature: calculates the digest and returns it
+         * with the pre-sign state as a token, releasing all native resources. Send
+         * {@link PreparedSignature#digest()} to the signer and pass its CMS to
+         * {@link #complete}. No remote signer is called; a failed preparation
+         * returns a token carrying the response_code of {@link #signPdf}.
+         */
+        public PreparedSignature prepare(SignPdfOptions opts) {
+            SignJob job = new SignJob(opts);
+            try {
+                if (!calculateDigestStage(job)) {
+                    return PreparedSignature.failed(job.responseCode, job.responseStatus, opts.outputPath);
+                }
+                PreparedSignature token = PreparedSignature.prepared(job.digest, opts.outputPath, opts.fieldId,
+                        opts.dss, job.preSign.toBytes());
+                if (journal != null) {
+                    journal.append(token);
+                }
+                return token;
+            } catch (IOException e) {
+                job.fail(4, "Failed when process PDF: " + e.getMessage());
+                return PreparedSignature.failed(job.responseCode, job.responseStatus, opts.outputPath);
+            } finally {
+                job.release();
+            }
+        }
+
+        public PreparedSignature prepare(SigningProfile profile, String inputPath, String outputPath) {
+            return prepare(profile.options(inputPath, outputPath));
+        }
+
+        /**
+         * Second half of a deferred signature: fetches revocation data when the
+         * token asks for DSS and embeds the CMS into the token's output path. A
+         * successful completion removes the token from the journal; a failed one
+         * leaves it there to be retried or discarded.
+         *
+         * A token can be completed only once: completing it again, or a copy of it
+         * restored with {@link PreparedSignature#fromJson} once the journal no
+         * longer lists it, returns response_code 3.
+         */
+        public SignResult complete(PreparedSignature token, String cms) {
+            if (token == null || !token.isSuccess() || cms == null || cms.isEmpty()) {
+                return new SignResult(3, "Input parameters is incorrect", null);
+            }
+            if (!completing.add(token.id())) {
+                return new SignResult(3, "Prepared signature is already being completed", token.outputPath());
+            }
+
+            try {
+                if (token.isCompleted() || (journal != null && !journal.contains(token.id()))) {
+                    return new SignResult(3, "Prepared signature already completed", token.outputPath());
+                }
+                return embed(token, cms);
+            } finally {
+                completing.remove(token.id());
+            }
+        }
+
+        private SignResult embed(PreparedSignature token, String cms) {
+            SignJob job = new SignJob(new SignPdfOptions(null, token.outputPath())
+                    .fieldId(token.fieldId()).dss(token.dss()));
+            job.preSign = PreSign.copyOf(token.preSign());
+            job.digest = token.digest();
+            job.cms = cms;
+            try {
+                if (embedStage(job)) {
+                    token.markCompleted();
+                    if (journal != null) {
+                        journal.remove(token.id());
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Failed to remove " + token.id() + " from journal: " + e.getMessage());
+            } finally {
+                finish(job);
+            }
+            return job.result(token.outputPath());
+        }
+
+        // State carried by one document through the signing stages
+        private static final class SignJob {
+            final SignPdfOptions opts;
+            final long startNanos = System.nanoTime();
+            int responseCode = 0;
+            String responseStatus = "success";
+            // The exception behind a failure, if any, see SignResult#error
+            Throwable error;
+            PreSign preSign;
+            String digest;
+            String cms;
+            // Per-field signer overriding the Sign's own, see FieldSpec
+            AsyncSigner signer;
+            Map<String, Object> signerOptions;
+            // Source of opts and of warm revocation data, see SigningProfile
+            SigningProfile profile;
+
+            SignJob(SignPdfOptions opts) {
+                this.opts = opts;
+            }
+
+            SignJob(SigningProfile profile, String inputPath, String outputPath) {
+                this(profile.options(inputPath, outputPath));
+                this.profile = profile;
+            }
+
+            boolean fail(int code, String status) {
+                responseCode = code;
+                responseStatus = status;
+                return false;
+            }
+
+            boolean fail(int code, String status, Throwable cause) {
+                error = cause;
+                return fail(code, status);
+            }
+
+            SignResult result(String outputPath) {
+                return new SignResult(responseCode, responseStatus, outputPath, error);
+            }
+
+            void release() {
+                if (preSign != null) {
+                    preSign.close();
+                }
+            }
+        }
+
+        private void finish(SignJob job) {
+            job.release();
+            metrics.signCompleted(job.responseCode, System.nanoTime() - job.startNanos);
+        }
+
+        private boolean calculateDigestStage(SignJob job) {
+            SignPdfOptions opts = job.opts;
 
             if (opts.inputPath == null || opts.inputPath.isEmpty() ||
                 opts.outputPath == null || opts.outputPath.isEmpty() ||
                 !opts.inputPath.toLowerCase().endsWith(".pdf") ||
                 !opts.outputPath.toLowerCase().endsWith(".pdf")) {
 
-                jsonData.addProperty("response_code", 3);
-                jsonData.addProperty("response_status", "Input parameters is incorrect");
-                return gson.toJson(jsonData);
+                return job.fail(3, "Input parameters is incorrect");
             }
 
             try {
-                Pointer preSignPtr = lib.calculate_digest(
-                    opts.inputPath,
-                    opts.imagePath,
-                    opts.url,
-                    opts.location,
-                    opts.reason,
-                    opts.contactInfo,
-                    opts.fieldId,
-                    opts.character,
-                    opts.signatureType,
-                    opts.page,
-                    opts.fieldType,
-                    opts.visibility,
-                    opts.x,
-                    opts.y,
-                    opts.width,
-                    opts.height,
-                    opts.dss
-                );
-
-                String preSignStr = preSignPtr.getString(0);
-                lib.free_c_string(preSignPtr);
-
-                if (preSignStr == null || preSignStr.isEmpty()) {
-                    jsonData.addProperty("response_code", 4);
-                    jsonData.addProperty("response_status", "Failed when process PDF");
-                    return gson.toJson(jsonData);
-                }
-
-                JsonObject data = gson.fromJson(preSignStr, JsonObject.class);
-                int responseCode = data.get("response_code").getAsInt();
-
-                if (responseCode == 0) {
-                    JsonObject dataObj = data.getAsJsonObject("data");
-                    String digest = dataObj.get("digest").getAsString();
-
-                    String cms = customFunction.apply(digest, options);
-                    String responseStr = getRevocation(cms, opts.dss);
-
-                    int result = lib.embed_cms(preSignStr, responseStr, opts.outputPath);
-
-                    if (result == 0) {
-                        return gson.toJson(jsonData);
-                    } else {
-                        jsonData.addProperty("response_code", 4);
-                        jsonData.addProperty("response_status", "Failed when process PDF");
+                long start = System.nanoTime();
+                try (NativeGovernor.Permit cpu = permit(NativeGovernor.Lane.CPU)) {
+                    JfrEvents.NativeCall event = JfrEvents.NativeCall.start();
+                    try {
+                        job.preSign = PreSign.wrap(lib, lib.calculate_digest(
+                            opts.inputPath,
+                            opts.imagePath,
+                            opts.url,
+                            opts.location,
+                            opts.reason,
+                            opts.contactInfo,
+                            opts.fieldId,
+                            opts.character,
+                            opts.signatureType,
+                            opts.page,
+                            opts.fieldType,
+                            opts.visibility,
+                            opts.x,
+                            opts.y,
+                            opts.width,
+                            opts.height,
+                            opts.dss
+                        ));
+                    } catch (RuntimeException | Error e) {
+                        event.fail(e);
+                        throw e;
+                    } finally {
+                        event.finishReading("calculate_digest", opts.inputPath,
+                                job.preSign == null ? 0 : job.preSign.size(), recordedResponseCode(job.preSign));
                     }
-                } else {
-                    switch (responseCode) {
-                        case 1:
-                            jsonData.addProperty("response_code", 1);
-                            jsonData.addProperty("response_status", "Failed to open/read document");
-                            break;
-                        case 4:
-                            jsonData.addProperty("response_code", 4);
-                            jsonData.addProperty("response_status", "Failed when process PDF");
-                            break;
-                        case 5:
-                            jsonData.addProperty("response_code", 5);
-                            jsonData.addProperty("response_status", "PDF File not found");
-                            break;
-                        case 6:
-                            jsonData.addProperty("response_code", 6);
-                            jsonData.addProperty("response_status", "Visualization Image not found");
-                            break;
-                        default:
-                            jsonData.addProperty("response_code", 4);
-                            jsonData.addProperty("response_status", "Failed when process PDF");
-                            break;
+                }
+
+                int preSignSize = job.preSign == null ? 0 : job.preSign.size();
+                metrics.stage(MetricsListener.Stage.DIGEST, System.nanoTime() - start, preSignSize);
+
+                if (job.preSign == null) {
+                    return job.fail(4, "Failed when process PDF");
+                }
+
+                switch (job.preSign.responseCode()) {
+                    case 0:
+                        job.digest = job.preSign.digest();
+                        return true;
+                    case 1:
+                        return job.fail(1, "Failed to open/read document");
+                    case 5:
+                        return job.fail(5, "PDF File not found");
+                    case 6:
+                        return job.fail(6, "Visualization Image not found");
+                    default:
+                        return job.fail(4, "Failed when process PDF");
+                }
+            } catch (Exception e) {
+                return job.fail(4, "Failed when process PDF: " + e.getMessage(), e);
+            }
+        }
+
+        // For the JFR event only, so an unreadable payload cannot replace the call's own outcome;
+        // the stage reports it once the call is recorded
+        private static int recordedResponseCode(PreSign preSign) {
+            if (preSign == null) {
+                return -1;
+            }
+            try {
+                return preSign.responseCode();
+            } catch (RuntimeException e) {
+                return -1;
+            }
+        }
+
+        private boolean signDigestStage(SignJob job) {
+            try {
+                long start = System.nanoTime();
+                try (NativeGovernor.Permit network = permit(NativeGovernor.Lane.NETWORK)) {
+                    JfrEvents.RemoteSign event = JfrEvents.RemoteSign.start();
+                    try {
+                        if (job.signer != null) {
+                            job.cms = job.signer.sign(job.digest, job.signerOptions).join();
+                        } else if (customFunction != null) {
+                            job.cms = customFunction.apply(job.digest, options);
+                        } else {
+                            job.cms = asyncFunction.sign(job.digest, options).join();
+                        }
+                    } catch (CompletionException e) {
+                        event.fail(e.getCause() != null ? e.getCause() : e);
+                        throw e;
+                    } catch (RuntimeException | Error e) {
+                        event.fail(e);
+                        throw e;
+                    } finally {
+                        event.finish(job.digest, job.cms);
                     }
                 }
+                return acceptCms(job, job.cms, start);
+            } catch (CompletionException e) {
+                return job.fail(4, "Failed when process PDF: " + e.getCause().getMessage(), e.getCause());
+            } catch (Exception e) {
+                return job.fail(4, "Failed when process PDF: " + e.getMessage(), e);
+            }
+        }
+
+        private CompletableFuture<Boolean> signDigestAsync(SignJob job, Executor executor) {
+            long start = System.nanoTime();
+            NativeGovernor.Permit network;
+            try {
+                network = permit(NativeGovernor.Lane.NETWORK);
+            } catch (NativeGovernor.RejectedException e) {
+                return CompletableFuture.completedFuture(job.fail(4, "Failed when process PDF: " + e.getMessage(), e));
+            }
+            JfrEvents.RemoteSign event = JfrEvents.RemoteSign.start();
+            CompletableFuture<String> cms;
+            try {
+                if (job.signer != null) {
+                    cms = job.signer.sign(job.digest, job.signerOptions);
+                } else if (asyncFunction != null) {
+                    cms = asyncFunction.sign(job.digest, options);
+                } else {
+                    cms = CompletableFuture.supplyAsync(() -> customFunction.apply(job.digest, options), executor);
+                }
+                if (cms == null) {
+                    cms = CompletableFuture.failedFuture(new IllegalStateException("signer returned no CMS"));
+                }
             } catch (Exception e) {
-                jsonData.addProperty("response_code", 4);
-                jsonData.addProperty("response_status", "Failed when process PDF: " + e.getMessage());
+                cms = CompletableFuture.failedFuture(e);
             }
 
-            return gson.toJson(jsonData);
+            return cms.handle((result, error) -> {
+                try {
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error;
+                        event.fail(cause);
+                        return job.fail(4, "Failed when process PDF: " + cause.getMessage(), cause);
+                    }
+                    return acceptCms(job, result, start);
+                } finally {
+                    event.finish(job.digest, result);
+                    network.close();
+                }
+            });
+        }
+
+        // A signer completing without a CMS fails the document like a signer error
+        private boolean acceptCms(SignJob job, String cms, long start) {
+            if (cms == null) {
+                return job.fail(4, "Failed when process PDF: signer returned no CMS");
+            }
+            job.cms = cms;
+            metrics.stage(MetricsListener.Stage.REMOTE_SIGN, System.nanoTime() - start, cms.length());
+            return true;
+        }
+
+        private boolean embedStage(SignJob job) {
+            try {
+                long start = System.nanoTime();
+                RevocationCache cache = job.profile != null ? job.profile.revocationCache() : revocationCache;
+                DssPayload dssPayload = buildRevocation(job.cms, job.opts.dss, cache);
+                long responseSize = dssPayload == null ? 0 : dssPayload.size();
+                long revoked = System.nanoTime();
+                metrics.stage(MetricsListener.Stage.REVOCATION, revoked - start, responseSize);
+
+                int result = -1;
+                try (NativeGovernor.Permit cpu = permit(NativeGovernor.Lane.CPU);
+                     Memory response = dssPayload == null ? null : dssPayload.toNative()) {
+                    JfrEvents.NativeCall event = JfrEvents.NativeCall.start();
+                    try {
+                        result = lib.embed_cms(job.preSign.pointer(), response, job.opts.outputPath);
+                    } catch (RuntimeException | Error e) {
+                        event.fail(e);
+                        throw e;
+                    } finally {
+                        event.finish("embed_cms", job.opts.outputPath, job.preSign.size() + responseSize, 0, result);
+                    }
+                }
+                job.release();
+                metrics.stage(MetricsListener.Stage.EMBED, System.nanoTime() - revoked, 0);
+
+                if (result != 0) {
+                    return job.fail(4, "Failed when process PDF");
+                }
+                return true;
+            } catch (Exception e) {
+                return job.fail(4, "Failed when process PDF: " + e.getMessage(), e);
+            }
         }
 
         // // Overloaded method with default parameters
@@ -453,16 +1356,86 @@ public class SignPDFKit {
 
     // Verify class
     public static class Verify extends SignPDFKitBase {
+        private VerificationCache verificationCache;
         
         public Verify(String libDir) {
             this.initializeFFI(libDir);
         }
+
+        Verify(SignPDFLibrary lib) {
+            this.lib = lib;
+        }
+
+        /**
+         * Reuses results for files whose content was already verified within the
+         * cache's TTL. Pass null to always run native verification.
+         */
+        public Verify verificationCache(VerificationCache cache) {
+            this.verificationCache = cache;
+            return this;
+        }
+
+        /**
+         * Bounds concurrent native verify calls; a rejected call returns null.
+         * Pass null to run unbounded.
+         */
+        public Verify governor(NativeGovernor governor) {
+            this.governor = governor;
+            return this;
+        }
+
+        public Verify metrics(MetricsListener listener) {
+            this.metrics = listener == null ? MetricsListener.NOOP : listener;
+            return this;
+        }
         
         public String verify(String inputPath) {
             try {
-                Pointer resultPtr = lib.verify(inputPath);
-                String resultStr = resultPtr.getString(0);
-                lib.free_c_string(resultPtr);
+                return verifyChecked(inputPath);
+            } catch (NativeGovernor.RejectedException e) {
+                System.err.println("Verification failed: " + e.getMessage());
+                return null;
+            }
+        }
+
+        // Like verify(String), but a call the governor rejects throws instead of returning null
+        String verifyChecked(String inputPath) {
+            long start = System.nanoTime();
+            String result = null;
+            try {
+                result = verificationCache == null
+                        ? verifyNative(inputPath)
+                        : verificationCache.verify(Paths.get(inputPath), file -> verifyNative(inputPath));
+            } finally {
+                metrics.verifyCompleted(result != null, System.nanoTime() - start);
+            }
+            return result;
+        }
+
+        private String verifyNative(String inputPath) {
+            long start = System.nanoTime();
+            String result = verifyUncounted(inputPath);
+            metrics.stage(MetricsListener.Stage.VERIFY, System.nanoTime() - start, result == null ? 0 : result.length());
+            return result;
+        }
+
+        private String verifyUncounted(String inputPath) {
+            try {
+                String resultStr = null;
+                try (NativeGovernor.Permit cpu = permit(NativeGovernor.Lane.CPU)) {
+                    JfrEvents.NativeCall event = JfrEvents.NativeCall.start();
+                    try {
+                        Pointer resultPtr = lib.verify(inputPath);
+                        resultStr = resultPtr.getString(0);
+                        lib.free_c_string(resultPtr);
+                    } catch (RuntimeException | Error e) {
+                        event.fail(e);
+                        throw e;
+                    } finally {
+                        event.finishReading("verify", inputPath, resultStr == null ? 0 : resultStr.length(),
+                                resultStr == null ? -1 : 0);
+                    }
+                }
                 
                 if (resultStr == null || resultStr.isEmpty()) {
                     return null;
@@ -470,11 +1443,70 @@ public class SignPDFKit {
                 
                 return resultStr;
                 
+            } catch (NativeGovernor.RejectedException e) {
+                throw e;
             } catch (Exception e) {
                 System.err.println("Verification failed: " + e.getMessage());
                 return null;
             }
         }
+
+        /**
+         * In-memory variants of {@link #verify(String)}; the document is staged in a
+         * tmpfs file for the native library and deleted before returning.
+         */
+        public String verify(byte[] input) {
+            return verify(ByteBuffer.wrap(input));
+        }
+
+        public String verify(ByteBuffer input) {
+            try (StagingArea staging = new StagingArea()) {
+                return verify(staging.write(input).toString());
+            } catch (IOException e) {
+                System.err.println("Verification failed: " + e.getMessage());
+                return null;
+            }
+        }
+
+        public String verify(InputStream input) {
+            try {
+                return verifyChecked(input);
+            } catch (IOException | NativeGovernor.RejectedException e) {
+                System.err.println("Verification failed: " + e.getMessage());
+                return null;
+            }
+        }
+
+        // Like verify(InputStream), but failing to read the input or a governor rejection throws
+        String verifyChecked(InputStream input) throws IOException {
+            try (StagingArea staging = new StagingArea()) {
+                return verifyChecked(staging.write(input).toString());
+            }
+        }
+
+        /**
+         * Typed variant of {@link #verify(String)}. The payload is parsed only as
+         * far as the fields the caller reads.
+         */
+        public VerifyResult verifyResult(String inputPath) {
+            return new VerifyResult(verify(inputPath));
+        }
+
+        public VerifyResult verifyResult(byte[] input) {
+            return new VerifyResult(verify(input));
+        }
+
+        public VerifyResult verifyResult(InputStream input) {
+            return new VerifyResult(verify(input));
+        }
+
+        public CompletableFuture<String> verifyAsync(String inputPath) {
+            return verifyAsync(inputPath, SignExecutors.defaultExecutor());
+        }
+
+        public CompletableFuture<String> verifyAsync(String inputPath, Executor executor) {
+            return CompletableFuture.supplyAsync(() -> verify(inputPath), executor);
+        }
     }
 
     // Utility method for quick initialization
@@ -483,6 +1515,10 @@ public class SignPDFKit {
         return new Sign(libDir, signFunction, options);
     }
 
+    public static Sign createAsyncSigner(String libDir, AsyncSigner signFunction, Map<String, Object> options) {
+        return new Sign(libDir, signFunction, options);
+    }
+
     public static Verify createVerifier(String libDir) {
         return new Verify(libDir);
     }
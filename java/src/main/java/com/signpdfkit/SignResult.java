@@ -0,0 +1,70 @@
+package com.signpdfkit;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+/**
+ * Outcome of a signing call. {@link #toJson()} gives the same
+ * response_code/response_status JSON returned by the String APIs.
+ */
+public final class SignResult {
+
+    private static final Gson GSON = new Gson();
+
+    private final int responseCode;
+    private final String responseStatus;
+    private final String outputPath;
+    private final Throwable error;
+
+    SignResult(int responseCode, String responseStatus, String outputPath) {
+        this(responseCode, responseStatus, outputPath, null);
+    }
+
+    SignResult(int responseCode, String responseStatus, String outputPath, Throwable error) {
+        this.responseCode = responseCode;
+        this.responseStatus = responseStatus;
+        this.outputPath = outputPath;
+        this.error = error;
+    }
+
+    public boolean isSuccess() {
+        return responseCode == 0;
+    }
+
+    public int responseCode() {
+        return responseCode;
+    }
+
+    public String responseStatus() {
+        return responseStatus;
+    }
+
+    /**
+     * The signed document's path for file-based calls, null for in-memory ones.
+     */
+    public String outputPath() {
+        return outputPath;
+    }
+
+    /**
+     * The exception that failed the call, e.g. a
+     * {@link NativeGovernor.RejectedException} when the governor turned it away
+     * or the IOException of an unreadable input stream; null on success and for
+     * failures reported by the native library. Not part of {@link #toJson()}.
+     */
+    public Throwable error() {
+        return error;
+    }
+
+    public String toJson() {
+        JsonObject json = new JsonObject();
+        json.addProperty("response_code", responseCode);
+        json.addProperty("response_status", responseStatus);
+        return GSON.toJson(json);
+    }
+
+    @Override
+    public String toString() {
+        return toJson();
+    }
+}
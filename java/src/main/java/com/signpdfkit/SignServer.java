@@ -0,0 +1,380 @@
+package com.signpdfkit;
+
+import com.signpdfkit.SignPDFKit.DSS;
+import com.signpdfkit.SignPDFKit.Sign;
+import com.signpdfkit.SignPDFKit.Sign.SignPdfOptions;
+import com.signpdfkit.SignPDFKit.Verify;
+import com.signpdfkit.SignPDFKit.Visibility;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Optional HTTP service mode on the JDK's built-in server:
+ *
+ *   POST /sign     PDF body  -> signed PDF (application/pdf), or the error JSON
+ *   POST /verify   PDF body  -> verify JSON
+ *   GET  /metrics            -> per-stage latencies, outcomes and governor state
+ *   GET  /health             -> ok
+ *
+ * One Sign and one Verify, and so one native library handle, serve every
+ * request. Documents are signed with the server's {@link SigningProfile}.
+ * Request bodies are streamed into tmpfs staging files and signed documents
+ * streamed back from there with chunked encoding, so no PDF is held on heap.
+ * Handlers run on virtual threads where available, otherwise on a bounded
+ * pool; a {@link NativeGovernor} caps native and remote work, and requests it
+ * rejects are answered with 503. Bodies above maxDocumentBytes, declared or
+ * not, are answered with 413.
+ *
+ *   mvn exec:java -Dexec.mainClass=com.signpdfkit.SignServer \
+ *       -Dexec.args="--lib ../lib --signer https://signpdfkit.com/api/sign --port 8080"
+ */
+public class SignServer implements AutoCloseable {
+
+    public static class Options {
+        public InetSocketAddress address = new InetSocketAddress(8080);
+        public int backlog = 1024;
+        public int threads = 4 * Runtime.getRuntime().availableProcessors();
+        public boolean virtualThreads = SignExecutors.virtualThreadsSupported();
+        public long maxDocumentBytes = 256L * 1024 * 1024;
+
+        public Options address(InetSocketAddress v) { this.address = v; return this; }
+        public Options backlog(int v) { this.backlog = v; return this; }
+        public Options threads(int v) { this.threads = v; return this; }
+        public Options virtualThreads(boolean v) { this.virtualThreads = v; return this; }
+        public Options maxDocumentBytes(long v) { this.maxDocumentBytes = v; return this; }
+    }
+
+    private final Sign signer;
+    private final Verify verifier;
+    private final SigningProfile profile;
+    private final NativeGovernor governor;
+    private final HdrMetricsListener metrics = new HdrMetricsListener();
+    private final Options opts;
+    private final ExecutorService executor;
+    private final HttpServer server;
+
+    /**
+     * Binds the server; requests are served once {@link #start()} is called.
+     * The signer and verifier get this server's governor and metrics listener.
+     */
+    public SignServer(Sign signer, Verify verifier, SigningProfile profile, NativeGovernor governor,
+                      Options opts) throws IOException {
+        this.signer = signer.governor(governor).metrics(metrics);
+        this.verifier = verifier.governor(governor).metrics(metrics);
+        this.profile = profile;
+        this.governor = governor;
+        this.opts = opts;
+        this.executor = opts.virtualThreads && SignExecutors.virtualThreadsSupported()
+                ? SignExecutors.newVirtualThreadExecutor()
+                : SignExecutors.newPlatformPool("http", opts.threads);
+
+        this.server = HttpServer.create(opts.address, opts.backlog);
+        server.createContext("/sign", guarded("POST", this::sign));
+        server.createContext("/verify", guarded("POST", this::verify));
+        server.createContext("/metrics", guarded("GET", this::metrics));
+        server.createContext("/health", guarded("GET", exchange -> send(exchange, 200, "text/plain", "ok")));
+        server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public InetSocketAddress address() {
+        return server.getAddress();
+    }
+
+    public HdrMetricsListener metrics() {
+        return metrics;
+    }
+
+    /**
+     * Stops accepting requests, waits up to two seconds for running exchanges
+     * and shuts the handler executor down.
+     */
+    @Override
+    public void close() {
+        server.stop(2);
+        executor.shutdown();
+    }
+
+    private void sign(HttpExchange exchange) throws IOException {
+        if (declaredTooLarge(exchange)) {
+            return;
+        }
+        StreamedResponse response = new StreamedResponse(exchange, "application/pdf");
+        SignResult result;
+        try (InputStream body = new LimitedInputStream(exchange.getRequestBody(), opts.maxDocumentBytes)) {
+            result = signer.signPdfResult(profile, body, response);
+        }
+        if (response.started()) {
+            response.close();
+            return;
+        }
+        if (result.error() instanceof DocumentTooLargeException) {
+            sendTooLarge(exchange);
+            return;
+        }
+        send(exchange, status(result), "application/json", result.toJson());
+    }
+
+    private void verify(HttpExchange exchange) throws IOException {
+        if (declaredTooLarge(exchange)) {
+            return;
+        }
+        String result;
+        try (InputStream body = new LimitedInputStream(exchange.getRequestBody(), opts.maxDocumentBytes)) {
+            result = verifier.verifyChecked(body);
+        } catch (DocumentTooLargeException e) {
+            sendTooLarge(exchange);
+            return;
+        } catch (NativeGovernor.RejectedException e) {
+            send(exchange, 503, "application/json",
+                    new SignResult(4, "Verification failed: " + e.getMessage(), null).toJson());
+            return;
+        } catch (IOException e) {
+            System.err.println("Verification failed: " + e.getMessage());
+            result = null;
+        }
+        if (result == null) {
+            send(exchange, 500, "application/json",
+                    new SignResult(4, "Verification failed", null).toJson());
+        } else {
+            send(exchange, 200, "application/json", result);
+        }
+    }
+
+    private void metrics(HttpExchange exchange) throws IOException {
+        StringBuilder out = new StringBuilder(metrics.toString());
+        for (NativeGovernor.Lane lane : NativeGovernor.Lane.values()) {
+            out.append(String.format("governor %-7s available=%d queued=%d max_queued=%d rejected=%d timed_out=%d%n",
+                    lane, governor.availablePermits(lane), governor.queueDepth(lane),
+                    governor.maxQueueDepth(lane), governor.rejected(lane), governor.timedOut(lane)));
+        }
+        send(exchange, 200, "text/plain; charset=utf-8", out.toString());
+    }
+
+    private static int status(SignResult result) {
+        if (result.error() instanceof NativeGovernor.RejectedException) {
+            return 503;
+        }
+        switch (result.responseCode()) {
+            case 3:
+                return 400;
+            case 1:
+                return 422;
+            default:
+                return 500;
+        }
+    }
+
+    private boolean declaredTooLarge(HttpExchange exchange) throws IOException {
+        String length = exchange.getRequestHeaders().getFirst("Content-Length");
+        try {
+            if (length != null && Long.parseLong(length) > opts.maxDocumentBytes) {
+                sendTooLarge(exchange);
+                return true;
+            }
+        } catch (NumberFormatException e) {
+            send(exchange, 400, "application/json", new SignResult(3, "Invalid Content-Length", null).toJson());
+            return true;
+        }
+        return false;
+    }
+
+    private void sendTooLarge(HttpExchange exchange) throws IOException {
+        // The unread body is abandoned, so the connection cannot be reused
+        exchange.getResponseHeaders().set("Connection", "close");
+        send(exchange, 413, "application/json",
+                new SignResult(3, "Document exceeds " + opts.maxDocumentBytes + " bytes", null).toJson());
+    }
+
+    private static HttpHandler guarded(String method, HttpHandler handler) {
+        return exchange -> {
+            try {
+                if (!method.equals(exchange.getRequestMethod())) {
+                    exchange.getResponseHeaders().add("Allow", method);
+                    send(exchange, 405, "text/plain", "Method not allowed");
+                } else {
+                    handler.handle(exchange);
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Request to " + exchange.getRequestURI() + " failed: " + e.getMessage());
+            } finally {
+                exchange.close();
+            }
+        };
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // Sends 200 with chunked encoding on the first byte, so a failure before any
+    // output can still be answered with an error status
+    private static final class StreamedResponse extends OutputStream {
+        private final HttpExchange exchange;
+        private final String contentType;
+        private OutputStream body;
+
+        StreamedResponse(HttpExchange exchange, String contentType) {
+            this.exchange = exchange;
+            this.contentType = contentType;
+        }
+
+        boolean started() {
+            return body != null;
+        }
+
+        private OutputStream body() throws IOException {
+            if (body == null) {
+                exchange.getResponseHeaders().set("Content-Type", contentType);
+                exchange.sendResponseHeaders(200, 0);
+                body = exchange.getResponseBody();
+            }
+            return body;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            body().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len > 0) {
+                body().write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (body != null) {
+                body.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (body != null) {
+                body.close();
+            }
+        }
+    }
+
+    // Thrown by LimitedInputStream; reaches the handlers through SignResult#error or verifyChecked
+    private static final class DocumentTooLargeException extends IOException {
+        DocumentTooLargeException(long max) {
+            super("Document exceeds " + max + " bytes");
+        }
+    }
+
+    // Fails the upload once more than max bytes arrived, for bodies without Content-Length.
+    // Every read after the overflow fails too: FileChannel.transferFrom drops a read error
+    // once it has transferred some bytes, and the next call must not see a clean EOF
+    private static final class LimitedInputStream extends FilterInputStream {
+        private final long max;
+        private long read;
+
+        LimitedInputStream(InputStream in, long max) {
+            super(in);
+            this.max = max;
+        }
+
+        @Override
+        public int read() throws IOException {
+            count(0);
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            count(0);
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) throws IOException {
+            read += n;
+            if (read > max) {
+                throw new DocumentTooLargeException(max);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String libDir = "../lib";
+        URI signerEndpoint = null;
+        Options opts = new Options();
+        SignPdfOptions template = new SignPdfOptions(null, null);
+        Map<String, Object> signerOptions = new HashMap<>();
+
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 == args.length) {
+                System.err.println("Missing value for option " + args[i]);
+                System.exit(2);
+            }
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--lib": libDir = value; break;
+                case "--signer": signerEndpoint = URI.create(value); break;
+                case "--port": opts.address(new InetSocketAddress(Integer.parseInt(value))); break;
+                case "--threads": opts.threads(Integer.parseInt(value)); break;
+                case "--virtual-threads": opts.virtualThreads(Boolean.parseBoolean(value)); break;
+                case "--max-document-bytes": opts.maxDocumentBytes(Long.parseLong(value)); break;
+                case "--field-id": template.fieldId(value); break;
+                case "--reason": template.reason(value); break;
+                case "--location": template.location(value); break;
+                case "--image": template.imagePath(value).visibility(Visibility.VISIBLE_IMAGE); break;
+                case "--dss": template.dss(Boolean.parseBoolean(value) ? DSS.YES : DSS.NO); break;
+                case "--signer-email": signerOptions.put("email", value); break;
+                case "--signer-passcode": signerOptions.put("passcode", value); break;
+                default:
+                    System.err.println("Unknown option " + args[i]);
+                    System.exit(2);
+            }
+        }
+        if (signerEndpoint == null) {
+            System.err.println("Usage: SignServer --signer URL [--lib DIR] [--port N] [--threads N]"
+                    + " [--virtual-threads true|false] [--max-document-bytes N] [--field-id ID] [--reason R]"
+                    + " [--location L] [--image PNG] [--dss true|false] [--signer-email E] [--signer-passcode P]");
+            System.exit(2);
+        }
+
+        RemoteSigner remote = new RemoteSigner(new RemoteSigner.Options(signerEndpoint));
+        SigningProfile profile = SigningProfile.of(template);
+        SignServer server = new SignServer(SignPDFKit.createAsyncSigner(libDir, remote, signerOptions),
+                SignPDFKit.createVerifier(libDir), profile, new NativeGovernor(), opts);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            profile.close();
+            remote.close();
+        }));
+        server.start();
+        System.out.println("SignPDFKit server listening on " + server.address());
+    }
+}
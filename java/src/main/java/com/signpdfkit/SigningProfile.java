@@ -0,0 +1,136 @@
+package com.signpdfkit;
+
+import com.signpdfkit.SignPDFKit.Sign.SignPdfOptions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Appearance, metadata and DSS settings of one signer, validated once and
+ * shared by every document it signs, e.g. with
+ * {@link SignPDFKit.Sign#signPdf(SigningProfile, String, String)}.
+ *
+ * A visible image is read and checked when the profile is created and staged
+ * as a private copy in tmpfs, so later edits of the original do not affect
+ * signatures and the native library reads it from memory. The profile also
+ * keeps a revocation cache for the signer's chain. Profiles are immutable and
+ * thread-safe; closing one deletes the staged image.
+ */
+public final class SigningProfile implements AutoCloseable {
+
+    private final SignPdfOptions template;
+    private final RevocationCache revocationCache;
+    private final StagingArea staging;
+
+    private SigningProfile(SignPdfOptions template, RevocationCache revocationCache, StagingArea staging) {
+        this.template = template;
+        this.revocationCache = revocationCache;
+        this.staging = staging;
+    }
+
+    /**
+     * Creates a profile from the options of a template; its inputPath and
+     * outputPath are ignored. Revocation data is kept in a profile-private cache.
+     */
+    public static SigningProfile of(SignPdfOptions template) throws IOException {
+        return of(template, new RevocationCache());
+    }
+
+    /**
+     * @param revocationCache cache consulted before fetching OCSP/CRL data for
+     *                        signatures made with this profile, may be null
+     * @throws IllegalArgumentException when the metadata or geometry is invalid
+     * @throws IOException              when the appearance image cannot be read
+     */
+    public static SigningProfile of(SignPdfOptions template, RevocationCache revocationCache) throws IOException {
+        validate(template);
+
+        SignPdfOptions snapshot = template.withPaths(null, null);
+        if (template.visibility != SignPDFKit.Visibility.VISIBLE_IMAGE) {
+            return new SigningProfile(snapshot, revocationCache, null);
+        }
+
+        Path image = Paths.get(template.imagePath);
+        if (!Files.isRegularFile(image) || !Files.isReadable(image)) {
+            throw new IOException("Visualization Image not found: " + template.imagePath);
+        }
+        byte[] content = Files.readAllBytes(image);
+        if (content.length == 0) {
+            throw new IOException("Visualization Image is empty: " + template.imagePath);
+        }
+
+        StagingArea staging = new StagingArea();
+        try {
+            snapshot.imagePath = staging.write(ByteBuffer.wrap(content), suffix(image)).toString();
+        } catch (IOException e) {
+            staging.close();
+            throw e;
+        }
+        return new SigningProfile(snapshot, revocationCache, staging);
+    }
+
+    /**
+     * Options for one document signed with this profile.
+     */
+    SignPdfOptions options(String inputPath, String outputPath) {
+        return template.withPaths(inputPath, outputPath);
+    }
+
+    public RevocationCache revocationCache() {
+        return revocationCache;
+    }
+
+    public String fieldId() {
+        return template.fieldId;
+    }
+
+    public int dss() {
+        return template.dss;
+    }
+
+    @Override
+    public void close() {
+        if (staging != null) {
+            staging.close();
+        }
+    }
+
+    private static void validate(SignPdfOptions template) {
+        if (template == null) {
+            throw new IllegalArgumentException("Signing profile requires options");
+        }
+        if (template.fieldId == null || template.fieldId.isEmpty()) {
+            throw new IllegalArgumentException("Signing profile requires a fieldId");
+        }
+        if (template.page < 1) {
+            throw new IllegalArgumentException("Invalid page: " + template.page);
+        }
+        if (template.visibility != SignPDFKit.Visibility.INVISIBLE &&
+            (template.width <= 0 || template.height <= 0)) {
+
+            throw new IllegalArgumentException("Visible signatures need a positive width and height");
+        }
+        if ((template.visibility == SignPDFKit.Visibility.VISIBLE_IMAGE_FROM_CHAR ||
+             template.visibility == SignPDFKit.Visibility.VISIBLE_QR_FROM_CHAR) &&
+            (template.character == null || template.character.isEmpty())) {
+
+            throw new IllegalArgumentException("Visibility " + template.visibility + " requires a character");
+        }
+        if (template.dss != SignPDFKit.DSS.NO && template.dss != SignPDFKit.DSS.YES) {
+            throw new IllegalArgumentException("Invalid dss: " + template.dss);
+        }
+        if (template.visibility == SignPDFKit.Visibility.VISIBLE_IMAGE && template.imagePath == null) {
+            throw new IllegalArgumentException("Visible image signatures need an imagePath");
+        }
+    }
+
+    // The native library may pick the decoder from the extension
+    private static String suffix(Path image) {
+        String name = image.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? ".img" : name.substring(dot);
+    }
+}
@@ -0,0 +1,131 @@
+package com.signpdfkit;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Short-lived PDF files handed to the native library by the in-memory APIs,
+ * and the appearance images staged by {@link SigningProfile}.
+ *
+ * Files live in a tmpfs directory when one is available (/dev/shm on Linux), so
+ * staging never touches a disk. Override with -Dsignpdfkit.stagingDir. Every
+ * file created through an instance is deleted when it is closed.
+ */
+final class StagingArea implements AutoCloseable {
+
+    private static final Path DEFAULT_DIRECTORY = defaultDirectory();
+
+    private final Path directory;
+    private final List<Path> files = new ArrayList<>();
+
+    StagingArea() {
+        this(DEFAULT_DIRECTORY);
+    }
+
+    StagingArea(Path directory) {
+        this.directory = directory;
+    }
+
+    static Path defaultDirectory() {
+        String configured = System.getProperty("signpdfkit.stagingDir");
+        if (configured != null && !configured.isEmpty()) {
+            return Paths.get(configured);
+        }
+
+        Path shm = Paths.get("/dev/shm");
+        if (Files.isDirectory(shm) && Files.isWritable(shm)) {
+            return shm;
+        }
+        return Paths.get(System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * Creates an empty .pdf file for the native library to write into.
+     */
+    Path reserve() throws IOException {
+        return reserve(".pdf");
+    }
+
+    Path reserve(String suffix) throws IOException {
+        Path file = Files.createTempFile(directory, "signpdfkit-", suffix);
+        files.add(file);
+        return file;
+    }
+
+    Path write(byte[] content) throws IOException {
+        return write(ByteBuffer.wrap(content));
+    }
+
+    Path write(ByteBuffer content) throws IOException {
+        return write(content, ".pdf");
+    }
+
+    // Direct buffers are written by the channel without an intermediate heap copy
+    Path write(ByteBuffer content, String suffix) throws IOException {
+        Path file = reserve(suffix);
+        ByteBuffer source = content.duplicate();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+        }
+        return file;
+    }
+
+    Path write(InputStream content) throws IOException {
+        Path file = reserve();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE);
+             ReadableByteChannel source = Channels.newChannel(content)) {
+            long position = 0;
+            long transferred;
+            while ((transferred = channel.transferFrom(source, position, 1L << 20)) > 0) {
+                position += transferred;
+            }
+        }
+        return file;
+    }
+
+    static void transfer(Path file, OutputStream output) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(output);
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+        }
+        output.flush();
+    }
+
+    /**
+     * Deletes a file of this area before the area is closed.
+     */
+    void delete(Path file) throws IOException {
+        Files.deleteIfExists(file);
+        files.remove(file);
+    }
+
+    @Override
+    public void close() {
+        for (Path file : files) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                System.err.println("Failed to delete staged file " + file + ": " + e.getMessage());
+            }
+        }
+        files.clear();
+    }
+}
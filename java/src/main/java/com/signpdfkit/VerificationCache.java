@@ -0,0 +1,180 @@
+package com.signpdfkit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Cache of {@link SignPDFKit.Verify#verify} results keyed by the SHA-256 of the
+ * file content, so unchanged documents are not verified again.
+ *
+ * A file whose size and modification time match the last time it was seen is
+ * not re-hashed. Results expire after the TTL because a verification outcome
+ * can change when revocation status does. Failed verifications are not cached.
+ */
+public class VerificationCache {
+
+    private static final class Fingerprint {
+        final long size;
+        final long modified;
+        final String digest;
+
+        Fingerprint(long size, long modified, String digest) {
+            this.size = size;
+            this.modified = modified;
+            this.digest = digest;
+        }
+    }
+
+    private final LruTtlStore store;
+    private final Duration ttl;
+    private final Map<Path, Fingerprint> fingerprints;
+    private final AtomicLong hashesAvoided = new AtomicLong();
+
+    public VerificationCache() {
+        this(10_000, 64L * 1024 * 1024, null, Duration.ofHours(1));
+    }
+
+    /**
+     * Cache whose persistent tier, if any, holds up to four times maxBytes.
+     *
+     * @param maxEntries    maximum number of results kept in memory
+     * @param maxBytes      maximum total size of results kept in memory
+     * @param diskDirectory optional directory for the persistent tier, may be null
+     * @param ttl           how long a verification result stays valid
+     */
+    public VerificationCache(int maxEntries, long maxBytes, Path diskDirectory, Duration ttl) {
+        this(maxEntries, maxBytes, diskDirectory, 4 * maxBytes, ttl);
+    }
+
+    /**
+     * @param maxDiskBytes  maximum total size of the persistent tier; least
+     *                      recently used files are deleted beyond it
+     */
+    public VerificationCache(int maxEntries, long maxBytes, Path diskDirectory, long maxDiskBytes,
+                             Duration ttl) {
+        this.store = new LruTtlStore(maxEntries, maxBytes, diskDirectory, maxDiskBytes);
+        this.ttl = ttl;
+        this.fingerprints = new LinkedHashMap<Path, Fingerprint>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, Fingerprint> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached result for the file's content, or runs the verifier and
+     * caches its result.
+     */
+    String verify(Path file, Function<Path, String> verifier) {
+        String key;
+        try {
+            key = contentDigest(file);
+        } catch (IOException e) {
+            return verifier.apply(file);
+        }
+
+        byte[] cached = store.get(key);
+        if (cached != null) {
+            return new String(cached, StandardCharsets.UTF_8);
+        }
+
+        String result = verifier.apply(file);
+        if (result != null) {
+            store.put(key, result.getBytes(StandardCharsets.UTF_8), System.currentTimeMillis() + ttl.toMillis());
+        }
+        return result;
+    }
+
+    public long hits() {
+        return store.hits();
+    }
+
+    public long misses() {
+        return store.misses();
+    }
+
+    public double hitRate() {
+        long hits = hits();
+        long total = hits + misses();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    public long evictions() {
+        return store.evictions();
+    }
+
+    public long diskEvictions() {
+        return store.diskEvictions();
+    }
+
+    /**
+     * Lookups answered from the size+mtime pre-check without hashing the file.
+     */
+    public long hashesAvoided() {
+        return hashesAvoided.get();
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    private String contentDigest(Path file) throws IOException {
+        Path key = file.toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        long size = attributes.size();
+        long modified = attributes.lastModifiedTime().toMillis();
+
+        synchronized (fingerprints) {
+            Fingerprint known = fingerprints.get(key);
+            if (known != null && known.size == size && known.modified == modified) {
+                hashesAvoided.incrementAndGet();
+                return known.digest;
+            }
+        }
+
+        String digest = sha256(key);
+        synchronized (fingerprints) {
+            fingerprints.put(key, new Fingerprint(size, modified, digest));
+        }
+        return digest;
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest sha;
+        try {
+            sha = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                sha.update(buffer);
+                buffer.clear();
+            }
+        }
+
+        byte[] hash = sha.digest();
+        StringBuilder hex = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,148 @@
+package com.signpdfkit;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Native verification payload, parsed lazily.
+ *
+ * Nothing is parsed until a field is requested. Each lookup streams over the
+ * top-level object and skips every other value, so reading response_code does
+ * not build the signature and certificate tree of a multi-signature document.
+ * Fields already read are kept.
+ */
+public final class VerifyResult {
+
+    private final String raw;
+    private final Map<String, JsonElement> fields = new HashMap<>();
+
+    VerifyResult(String raw) {
+        this.raw = raw;
+    }
+
+    /**
+     * True when native verification returned a payload whose response_code is 0.
+     */
+    public boolean isValid() {
+        return responseCode() == 0;
+    }
+
+    /**
+     * response_code of the payload, or -1 when verification produced no result
+     * or the payload carries no integer response_code.
+     */
+    public int responseCode() {
+        JsonElement code = field("response_code");
+        if (!code.isJsonPrimitive()) {
+            return -1;
+        }
+        try {
+            // Parsed from the literal: getAsInt() would throw on text and silently narrow overflows
+            return Integer.parseInt(code.getAsString());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public String responseStatus() {
+        return getString("response_status");
+    }
+
+    public String getString(String name) {
+        JsonElement value = field(name);
+        return value.isJsonPrimitive() ? value.getAsString() : null;
+    }
+
+    /**
+     * Returns a top-level field of the payload, or {@link JsonNull} when absent.
+     */
+    public synchronized JsonElement field(String name) {
+        JsonElement value = fields.get(name);
+        if (value == null) {
+            value = scan(name);
+            fields.put(name, value);
+        }
+        return value;
+    }
+
+    /**
+     * Number of elements in a top-level array field, counted without parsing them.
+     */
+    public int arraySize(String name) {
+        JsonElement cached;
+        synchronized (this) {
+            cached = fields.get(name);
+        }
+        if (cached != null) {
+            return cached.isJsonArray() ? cached.getAsJsonArray().size() : 0;
+        }
+
+        try (JsonReader reader = seek(name)) {
+            if (reader == null || reader.peek() != JsonToken.BEGIN_ARRAY) {
+                return 0;
+            }
+            int size = 0;
+            reader.beginArray();
+            while (reader.hasNext()) {
+                reader.skipValue();
+                size++;
+            }
+            return size;
+        } catch (IOException | IllegalStateException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * The payload exactly as returned by the native library, or null.
+     */
+    public String raw() {
+        return raw;
+    }
+
+    @Override
+    public String toString() {
+        return raw;
+    }
+
+    private JsonElement scan(String name) {
+        try (JsonReader reader = seek(name)) {
+            return reader == null ? JsonNull.INSTANCE : JsonParser.parseReader(reader);
+        } catch (IOException | RuntimeException e) {
+            return JsonNull.INSTANCE;
+        }
+    }
+
+    // Positions a reader on the value of a top-level field, or returns null
+    private JsonReader seek(String name) throws IOException {
+        if (raw == null) {
+            return null;
+        }
+        JsonReader reader = new JsonReader(new StringReader(raw));
+        try {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                reader.close();
+                return null;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals(name)) {
+                    return reader;
+                }
+                reader.skipValue();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Malformed payloads read as absent fields
+        }
+        reader.close();
+        return null;
+    }
+}
@@ -0,0 +1,23 @@
+package com.signpdfkit;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Virtual-thread support behind {@link SignExecutors}. This is the Java 11
+ * variant, which has none; the Java 21 variant in META-INF/versions/21 is the
+ * only class that differs between the two releases.
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    static boolean supported() {
+        return false;
+    }
+
+    // Null when virtual threads are not available
+    static ExecutorService newExecutor() {
+        return null;
+    }
+}
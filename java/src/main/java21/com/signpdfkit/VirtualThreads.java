@@ -0,0 +1,21 @@
+package com.signpdfkit;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Java 21 variant, packaged under META-INF/versions/21 of the multi-release jar.
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    static boolean supported() {
+        return true;
+    }
+
+    static ExecutorService newExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("signpdfkit-virtual-", 1).factory());
+    }
+}
@@ -0,0 +1,125 @@
+package com.signpdfkit;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.signpdfkit.SignPDFKit.Verify;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkVerifierTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void ndjsonKeepsMultiLineResultsOnOneLine() {
+        StringWriter out = new StringWriter();
+        BulkVerifier.Listener listener = BulkVerifier.ndjson(out);
+
+        listener.onResult(Paths.get("a.pdf"), "{\n  \"response_code\": 0,\n  \"data\": {\n    \"signatures\": []\n  }\n}\n");
+        listener.onResult(Paths.get("b.pdf"), null);
+        listener.onResult(Paths.get("c.pdf"), "not\njson");
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(3, lines.length);
+        JsonObject first = JsonParser.parseString(lines[0]).getAsJsonObject();
+        assertEquals("a.pdf", first.get("path").getAsString());
+        assertEquals(0, first.getAsJsonObject("result").get("response_code").getAsInt());
+        assertTrue(JsonParser.parseString(lines[1]).getAsJsonObject().get("result").isJsonNull());
+        assertEquals("not\njson", JsonParser.parseString(lines[2]).getAsJsonObject().get("result").getAsString());
+    }
+
+    @Test
+    void verifyTreeWritesOneRecordPerPdf() throws Exception {
+        Files.createDirectories(dir.resolve("nested"));
+        Files.write(dir.resolve("one.pdf"), new byte[0]);
+        Files.write(dir.resolve("nested/two.PDF"), new byte[0]);
+        Files.write(dir.resolve("notes.txt"), new byte[0]);
+        StringWriter out = new StringWriter();
+
+        BulkVerifier.Task task = new BulkVerifier(new Verify(new FakeSignPDFLibrary(100, 2)), 2)
+                .verifyTree(dir, out);
+        assertTrue(task.await(5, TimeUnit.SECONDS));
+
+        assertEquals(2, task.verified());
+        String[] lines = out.toString().split("\n");
+        assertEquals(2, lines.length);
+        for (String line : lines) {
+            JsonObject record = JsonParser.parseString(line).getAsJsonObject();
+            assertEquals(2, record.getAsJsonObject("result").getAsJsonObject("data").getAsJsonArray("signatures").size());
+        }
+    }
+
+    @Test
+    void cancelStopsPullingAndSubmittingFiles() throws Exception {
+        FakeSignPDFLibrary lib = new FakeSignPDFLibrary(100, 1);
+        CountDownLatch verifying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        lib.listener(call -> {
+            verifying.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        AtomicInteger pulled = new AtomicInteger();
+        Stream<Path> paths = IntStream.range(0, 10_000)
+                .mapToObj(i -> Paths.get(i + ".pdf"))
+                .peek(path -> pulled.incrementAndGet());
+
+        BulkVerifier.Task task = new BulkVerifier(new Verify(lib), 1).verifyAll(paths, (path, result) -> { });
+        assertTrue(verifying.await(5, TimeUnit.SECONDS));
+        task.cancel();
+        release.countDown();
+        assertTrue(task.await(5, TimeUnit.SECONDS));
+
+        assertTrue(task.isCancelled());
+        assertEquals(1, task.verified(), "queued files are skipped once cancelled");
+        // One file in flight plus at most four queued per worker, and the one the producer was holding
+        assertTrue(pulled.get() <= 6, "pulled " + pulled.get());
+    }
+
+    @Test
+    void failedWriteFailsTheTask() throws Exception {
+        Writer broken = new Writer() {
+            @Override
+            public void write(char[] buffer, int offset, int length) throws IOException {
+                throw new IOException("disk full");
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Stream<Path> paths = IntStream.range(0, 1_000).mapToObj(i -> Paths.get(i + ".pdf"));
+
+        BulkVerifier.Task task = new BulkVerifier(new Verify(new FakeSignPDFLibrary(100, 1)), 1)
+                .verifyAll(paths, BulkVerifier.ndjson(broken));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> task.await(5, TimeUnit.SECONDS));
+        assertEquals("disk full", e.getCause().getMessage());
+        assertTrue(task.isDone());
+        assertTrue(task.verified() < 1_000, "stops after the first failed write");
+    }
+}
@@ -0,0 +1,153 @@
+package com.signpdfkit;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CrlDecoderTest {
+
+    private static final ZonedDateTime NOW = ZonedDateTime.now(ZoneOffset.UTC);
+    private static final byte[] DER = RevocationFixtures.crl(NOW, NOW.plusDays(7), 10_000);
+
+    @Test
+    void derIsPassedThrough() throws IOException {
+        assertSame(DER, CrlDecoder.decode(DER, Long.MAX_VALUE));
+        assertArrayEquals(DER, streamed(DER, 7));
+    }
+
+    @Test
+    void pemIsDecoded() throws IOException {
+        byte[] pem = RevocationFixtures.pem(DER);
+
+        assertArrayEquals(DER, CrlDecoder.decode(pem, Long.MAX_VALUE));
+        assertArrayEquals(DER, streamed(pem, 1));
+        assertArrayEquals(DER, streamed(pem, 4096));
+    }
+
+    @Test
+    void textBeforePemBlockIsSkipped() throws IOException {
+        byte[] dump = concat(("Certificate Revocation List (CRL):\n"
+                + "        Issuer: CN = Synthetic CA\n"
+                + "        Last Update: Jan  1 00:00:00 2026 GMT\n").getBytes(StandardCharsets.US_ASCII),
+                RevocationFixtures.pem(DER));
+
+        assertArrayEquals(DER, CrlDecoder.decode(dump, Long.MAX_VALUE));
+        assertArrayEquals(DER, streamed(dump, 13));
+    }
+
+    @Test
+    void inputWithoutPemBlock() throws IOException {
+        byte[] text = "not a CRL\n".getBytes(StandardCharsets.US_ASCII);
+
+        // As before streaming, in-memory content without a PEM block is kept as-is
+        assertSame(text, CrlDecoder.decode(text, Long.MAX_VALUE));
+        assertThrows(IOException.class, () -> streamed(text, 4));
+    }
+
+    @Test
+    void outputIsCapped() {
+        assertThrows(CrlDecoder.TooLargeException.class, () -> CrlDecoder.decode(DER, DER.length - 1));
+        assertThrows(CrlDecoder.TooLargeException.class,
+                () -> CrlDecoder.decode(RevocationFixtures.pem(DER), DER.length - 1));
+        assertThrows(CrlDecoder.TooLargeException.class, () -> {
+            CrlDecoder decoder = new CrlDecoder(DER.length - 1, -1);
+            decoder.accept(ByteBuffer.wrap(RevocationFixtures.pem(DER)));
+            decoder.finish();
+        });
+    }
+
+    @Test
+    void largeCrlIsDownloadedWithinCap() throws Exception {
+        try (RevocationFixtures responder = new RevocationFixtures(4 * 1024 * 1024, true)) {
+            HttpClient client = HttpClient.newHttpClient();
+            HttpRequest request = HttpRequest.newBuilder(URI.create(responder.baseUrl() + "/crl")).build();
+
+            byte[] der = client.send(request, CrlDecoder.bodyHandler(8 * 1024 * 1024)).body();
+            assertArrayEquals(CrlDecoder.decode(responder.crl, Long.MAX_VALUE), der);
+
+            CompletionException error = assertThrows(CompletionException.class,
+                    () -> client.sendAsync(request, CrlDecoder.bodyHandler(1024 * 1024)).join());
+            assertInstanceOf(CrlDecoder.TooLargeException.class, error.getCause());
+        }
+    }
+
+    @Test
+    void declaredOversizeIsRejectedBeforeAllocating() {
+        // Presizing to the cap here would need a 2 GB buffer before the length check
+        HttpResponse.BodySubscriber<byte[]> subscriber = CrlDecoder.bodyHandler(Integer.MAX_VALUE - 8)
+                .apply(responseInfo(1L << 40));
+        AtomicBoolean cancelled = new AtomicBoolean();
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+                cancelled.set(true);
+            }
+        });
+
+        assertTrue(cancelled.get());
+        CompletionException error = assertThrows(CompletionException.class,
+                () -> subscriber.getBody().toCompletableFuture().join());
+        assertInstanceOf(CrlDecoder.TooLargeException.class, error.getCause());
+    }
+
+    private static HttpResponse.ResponseInfo responseInfo(long contentLength) {
+        HttpHeaders headers = HttpHeaders.of(Map.of("Content-Length", List.of(Long.toString(contentLength))),
+                (name, value) -> true);
+        return new HttpResponse.ResponseInfo() {
+            @Override
+            public int statusCode() {
+                return 200;
+            }
+
+            @Override
+            public HttpHeaders headers() {
+                return headers;
+            }
+
+            @Override
+            public HttpClient.Version version() {
+                return HttpClient.Version.HTTP_1_1;
+            }
+        };
+    }
+
+    // Feeds the decoder in chunks, the way a body subscriber sees the download
+    private static byte[] streamed(byte[] content, int chunk) throws IOException {
+        CrlDecoder decoder = new CrlDecoder(Long.MAX_VALUE, -1);
+        for (int i = 0; i < content.length; i += chunk) {
+            decoder.accept(ByteBuffer.wrap(content, i, Math.min(chunk, content.length - i)));
+        }
+        return decoder.finish();
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] joined = new byte[first.length + second.length];
+        System.arraycopy(first, 0, joined, 0, first.length);
+        System.arraycopy(second, 0, joined, first.length, second.length);
+        return joined;
+    }
+}
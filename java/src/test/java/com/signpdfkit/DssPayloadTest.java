@@ -0,0 +1,86 @@
+package com.signpdfkit;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.jna.Memory;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DssPayloadTest {
+
+    private static final int CHUNK = DssPayload.CHUNK;
+    private static final int[] SIZES = {0, 1, 2, CHUNK - 1, CHUNK, CHUNK + 1, 3 * CHUNK + 5};
+
+    private final Random random = new Random(42);
+
+    @Test
+    void streamedPayloadMatchesTreePayloadAcrossChunkBoundaries() {
+        for (int size : SIZES) {
+            assertRoundTrip("CMS", List.of(der(size)), List.of(der(size)));
+        }
+    }
+
+    @Test
+    void severalResponsesAndCrlsKeepTheirOrder() {
+        List<byte[]> ocsp = new ArrayList<>();
+        List<byte[]> crl = new ArrayList<>();
+        for (int size : SIZES) {
+            ocsp.add(der(size));
+            crl.add(der(size + 7));
+        }
+        assertRoundTrip("MIIB+/=", ocsp, crl);
+    }
+
+    @Test
+    void emptyArrays() {
+        assertRoundTrip("CMS", List.of(), List.of());
+    }
+
+    @Test
+    void cmsIsEscapedAsJson() {
+        assertRoundTrip("quote\" backslash\\ tab\t nul\u0000 newline\n é", List.of(der(10)), List.of());
+    }
+
+    private static void assertRoundTrip(String cms, List<byte[]> ocsp, List<byte[]> crl) {
+        DssPayload payload = new DssPayload(cms);
+        ocsp.forEach(payload::addOcsp);
+        crl.forEach(payload::addCrl);
+
+        // The Gson tree embed_cms was handed before the payload was streamed
+        JsonObject tree = new JsonObject();
+        tree.addProperty("cms", cms);
+        JsonArray ocspArray = new JsonArray();
+        ocsp.forEach(der -> ocspArray.add(Base64.getEncoder().encodeToString(der)));
+        tree.add("ocsp", ocspArray);
+        JsonArray crlArray = new JsonArray();
+        crl.forEach(der -> crlArray.add(Base64.getEncoder().encodeToString(der)));
+        tree.add("crl", crlArray);
+        String expected = new Gson().toJson(tree);
+
+        String json = payload.toJson();
+        assertEquals(JsonParser.parseString(expected), JsonParser.parseString(json));
+        assertEquals(payload.size(), json.getBytes(StandardCharsets.UTF_8).length);
+
+        try (Memory memory = payload.toNative()) {
+            assertEquals(payload.size() + 1, memory.size());
+            assertEquals(0, memory.getByte(payload.size()), "NUL-terminated");
+            byte[] bytes = memory.getByteArray(0, (int) payload.size());
+            assertEquals(json, new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    private byte[] der(int size) {
+        byte[] der = new byte[size];
+        random.nextBytes(der);
+        return der;
+    }
+}
@@ -0,0 +1,140 @@
+package com.signpdfkit;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-process stand-in for libsignpdfkit. Each call hands back a freshly allocated
+ * native copy of a canned payload, the way the real library returns C strings,
+ * so the benchmarks measure only the wrapper's marshalling and bookkeeping and
+ * the tests run without a native build.
+ */
+final class FakeSignPDFLibrary implements SignPDFKit.SignPDFLibrary {
+
+    static final String DIGEST = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+    private static final byte[] SIGNED = new byte[4096];
+
+    private final Map<Long, Memory> live = new ConcurrentHashMap<>();
+    private final String preSign;
+    private final String verifyResult;
+    private volatile String revocationParameters = "[]";
+    private volatile byte[] signed = SIGNED;
+    private volatile Consumer<String> listener = call -> { };
+
+    FakeSignPDFLibrary(int appearanceBytes, int signatures) {
+        this.preSign = "{\"response_code\":0,\"response_status\":\"success\",\"data\":{\"digest\":\"" + DIGEST
+                + "\",\"appearance\":\"" + repeat('A', appearanceBytes) + "\"}}";
+        this.verifyResult = verifyPayload(signatures);
+    }
+
+    void revocationParameters(String json) {
+        this.revocationParameters = json;
+    }
+
+    // Size of the document embed_cms writes, to model rewriting large PDFs
+    void signedDocumentBytes(int size) {
+        this.signed = new byte[size];
+    }
+
+    // Observes each native call as "name path", e.g. to see how stages interleave
+    void listener(Consumer<String> listener) {
+        this.listener = listener;
+    }
+
+    int liveAllocations() {
+        return live.size();
+    }
+
+    @Override
+    public Pointer calculate_digest(String input_path, String image_path, String url, String location,
+                                    String reason, String contact_info, String field_id, String character,
+                                    int signature_type, int page, int field_type, int visibility,
+                                    double x, double y, double width, double height, int dss) {
+        listener.accept("calculate_digest " + input_path);
+        return allocate(preSign);
+    }
+
+    @Override
+    public Pointer get_revocation_parameters(String cms) {
+        return allocate(revocationParameters);
+    }
+
+    @Override
+    public int embed_cms(String pre_sign, String response_str, String output_path) {
+        return pre_sign.isEmpty() ? 4 : writeSigned(output_path);
+    }
+
+    @Override
+    public int embed_cms(Pointer pre_sign, String response_str, String output_path) {
+        return pre_sign.getByte(0) == '{' ? writeSigned(output_path) : 4;
+    }
+
+    @Override
+    public int embed_cms(Pointer pre_sign, Pointer response_str, String output_path) {
+        return pre_sign.getByte(0) == '{' ? writeSigned(output_path) : 4;
+    }
+
+    // The real library writes the signed document; a small file stands in for it
+    private int writeSigned(String outputPath) {
+        listener.accept("embed_cms " + outputPath);
+        try {
+            Files.write(Paths.get(outputPath), signed);
+            return 0;
+        } catch (IOException e) {
+            return 4;
+        }
+    }
+
+    @Override
+    public void free_c_string(Pointer ptr) {
+        Memory memory = live.remove(Pointer.nativeValue(ptr));
+        if (memory != null) {
+            memory.close();
+        }
+    }
+
+    @Override
+    public Pointer verify(String input_path) {
+        listener.accept("verify " + input_path);
+        return allocate(verifyResult);
+    }
+
+    private Pointer allocate(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        Memory memory = new Memory(bytes.length + 1);
+        memory.write(0, bytes, 0, bytes.length);
+        memory.setByte(bytes.length, (byte) 0);
+        live.put(Pointer.nativeValue(memory), memory);
+        return memory;
+    }
+
+    private static String verifyPayload(int signatures) {
+        StringBuilder json = new StringBuilder("{\"response_code\":0,\"response_status\":\"success\",\"data\":{\"signatures\":[");
+        for (int i = 0; i < signatures; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"field\":\"Signature").append(i)
+                .append("\",\"signer\":\"CN=Signer ").append(i)
+                .append("\",\"valid\":true,\"certificate\":\"").append(repeat('M', 2048))
+                .append("\"}");
+        }
+        return json.append("]}}").toString();
+    }
+
+    static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+}
@@ -0,0 +1,140 @@
+package com.signpdfkit;
+
+import com.signpdfkit.SignPDFKit.Sign;
+import com.signpdfkit.SignPDFKit.Sign.SignPdfOptions;
+import com.signpdfkit.SignPDFKit.SignPDFLibrary;
+import com.signpdfkit.SignPDFKit.Verify;
+import com.sun.jna.Memory;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JfrEventsTest {
+
+    private static final byte[] INPUT = new byte[1234];
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void writeInput() throws IOException {
+        Files.write(dir.resolve("in.pdf"), INPUT);
+    }
+
+    @Test
+    void failedRemoteSignIsRecorded() throws Exception {
+        Sign signer = new Sign(new FakeSignPDFLibrary(100, 1), (digest, options) -> {
+            throw new IllegalStateException("remote down");
+        }, new HashMap<>());
+
+        List<RecordedEvent> events = record(() -> signer.signPdf(document("out.pdf")));
+
+        RecordedEvent remoteSign = only(events, "com.signpdfkit.RemoteSign");
+        assertFalse(remoteSign.getBoolean("success"));
+        assertTrue(remoteSign.getString("error").contains("remote down"));
+    }
+
+    @Test
+    void nativeCallsCarryResultCodeAndSuccess() throws Exception {
+        Sign signer = new Sign(new FakeSignPDFLibrary(100, 1), (digest, options) -> "CMS", new HashMap<>());
+
+        // The fake cannot write into a missing directory, so embed_cms returns 4
+        List<RecordedEvent> events = record(() -> signer.signPdf(document("missing/out.pdf")));
+
+        List<RecordedEvent> nativeCalls = all(events, "com.signpdfkit.NativeCall");
+        RecordedEvent digest = function(nativeCalls, "calculate_digest");
+        assertTrue(digest.getBoolean("success"));
+        assertNull(digest.getString("error"));
+        assertEquals(INPUT.length, digest.getLong("inputBytes"));
+        RecordedEvent embed = function(nativeCalls, "embed_cms");
+        assertFalse(embed.getBoolean("success"));
+        assertEquals(4, embed.getInt("resultCode"));
+        assertTrue(only(events, "com.signpdfkit.RemoteSign").getBoolean("success"));
+    }
+
+    @Test
+    void throwingNativeCallIsRecorded() throws Exception {
+        SignPDFLibrary broken = (SignPDFLibrary) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{SignPDFLibrary.class}, (proxy, method, args) -> {
+                    throw new IllegalStateException("verify crashed");
+                });
+        Verify verifier = new Verify(broken);
+
+        List<RecordedEvent> events = record(() -> assertNull(verifier.verify(dir.resolve("in.pdf").toString())));
+
+        RecordedEvent verify = only(events, "com.signpdfkit.NativeCall");
+        assertEquals("verify", verify.getString("function"));
+        assertFalse(verify.getBoolean("success"));
+        assertTrue(verify.getString("error").contains("verify crashed"));
+    }
+
+    @Test
+    void unreadablePreSignIsStillRecorded() throws Exception {
+        Memory garbage = new Memory(9);
+        garbage.setString(0, "not json");
+        SignPDFLibrary lib = (SignPDFLibrary) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{SignPDFLibrary.class},
+                (proxy, method, args) -> "calculate_digest".equals(method.getName()) ? garbage : null);
+        Sign signer = new Sign(lib, (digest, options) -> "CMS", new HashMap<>());
+
+        List<RecordedEvent> events = record(
+                () -> assertEquals(4, signer.signPdfResult(document("out.pdf")).responseCode()));
+
+        RecordedEvent digest = only(events, "com.signpdfkit.NativeCall");
+        assertEquals(-1, digest.getInt("resultCode"));
+        assertFalse(digest.getBoolean("success"));
+        assertEquals(INPUT.length, digest.getLong("inputBytes"));
+        assertEquals(8, digest.getLong("outputBytes"));
+    }
+
+    private SignPdfOptions document(String output) {
+        return new SignPdfOptions(dir.resolve("in.pdf").toString(), dir.resolve(output).toString());
+    }
+
+    private List<RecordedEvent> record(Runnable action) throws Exception {
+        Path file = dir.resolve("recording.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.signpdfkit.NativeCall").withoutThreshold();
+            recording.enable("com.signpdfkit.RemoteSign").withoutThreshold();
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith("com.signpdfkit."))
+                .collect(Collectors.toList());
+    }
+
+    private static List<RecordedEvent> all(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name))
+                .collect(Collectors.toList());
+    }
+
+    private static RecordedEvent only(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = all(events, name);
+        assertEquals(1, matching.size(), name + " events");
+        return matching.get(0);
+    }
+
+    private static RecordedEvent function(List<RecordedEvent> nativeCalls, String function) {
+        return nativeCalls.stream().filter(event -> function.equals(event.getString("function")))
+                .findFirst().orElseThrow(() -> new AssertionError("no " + function + " event"));
+    }
+}
@@ -0,0 +1,409 @@
+package com.signpdfkit;
+
+import com.signpdfkit.SignPDFKit.DSS;
+import com.signpdfkit.SignPDFKit.Sign;
+import com.signpdfkit.SignPDFKit.Sign.SignPdfOptions;
+import com.signpdfkit.SignPDFKit.Verify;
+import com.sun.net.httpserver.HttpServer;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.InetSocketAddress;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Load generator for capacity sizing: drives Sign.signPdf (and optionally
+ * Verify.verify on each signed output) over a corpus of PDFs against the
+ * native library, with an embedded stub signer and, with --dss, a stub OCSP/CRL
+ * responder that every revocation request is proxied to.
+ *
+ * It lives with the test sources, next to the revocation fixtures it serves,
+ * and so is not shipped in the library jar:
+ *
+ *   mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.signpdfkit.LoadGenerator \
+ *       -Dexec.args="--corpus ../assets/input --cms cms.b64 --concurrency 16 --duration 60 --verify"
+ *
+ * Runs closed-loop at --concurrency, or open-loop at --rate signatures per
+ * second. Open-loop arrivals follow the schedule whatever is in progress: they
+ * queue for the --concurrency workers, and latency is measured from each
+ * request's scheduled start so that queueing shows up in the percentiles. The
+ * stub signer answers every digest with the CMS from --cms, so use one the
+ * native library accepts. After the run it prints throughput, per-stage
+ * latency percentiles, response codes and GC/heap statistics, and deletes the
+ * signed outputs unless --out was given.
+ */
+public class LoadGenerator {
+
+    static final class Config {
+        String libDir = "../lib";
+        Path corpus = Paths.get("../assets/input");
+        Path outputDir;
+        Path cmsFile;
+        int concurrency = Runtime.getRuntime().availableProcessors();
+        double rate = 0;
+        int durationSeconds = 30;
+        int warmupSeconds = 5;
+        int signerMillis = 0;
+        int crlBytes = 64 * 1024;
+        boolean dss;
+        boolean verify;
+
+        static Config parse(String[] args) {
+            Config config = new Config();
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if ("--dss".equals(arg)) {
+                    config.dss = true;
+                    continue;
+                }
+                if ("--verify".equals(arg)) {
+                    config.verify = true;
+                    continue;
+                }
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + arg);
+                }
+                String value = args[++i];
+                switch (arg) {
+                    case "--lib": config.libDir = value; break;
+                    case "--corpus": config.corpus = Paths.get(value); break;
+                    case "--out": config.outputDir = Paths.get(value); break;
+                    case "--cms": config.cmsFile = Paths.get(value); break;
+                    case "--concurrency": config.concurrency = Integer.parseInt(value); break;
+                    case "--rate": config.rate = Double.parseDouble(value); break;
+                    case "--duration": config.durationSeconds = Integer.parseInt(value); break;
+                    case "--warmup": config.warmupSeconds = Integer.parseInt(value); break;
+                    case "--signer-latency": config.signerMillis = Integer.parseInt(value); break;
+                    case "--crl-bytes": config.crlBytes = Integer.parseInt(value); break;
+                    default: throw new IllegalArgumentException("Unknown option " + arg);
+                }
+            }
+            return config;
+        }
+    }
+
+    private static final String USAGE = "Usage: LoadGenerator [--lib DIR] [--corpus DIR] [--out DIR] [--cms FILE]\n"
+            + "                     [--concurrency N] [--rate PER_SECOND] [--duration S] [--warmup S]\n"
+            + "                     [--signer-latency MS] [--dss] [--crl-bytes N] [--verify]";
+
+    private final Config config;
+    private final List<Path> corpus;
+    private final Path outputDir;
+    private final HdrMetricsListener metrics = new HdrMetricsListener();
+    private final Histogram endToEnd = new ConcurrentHistogram(TimeUnit.HOURS.toMicros(1), 3);
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder verifyFailures = new LongAdder();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile boolean recording;
+
+    LoadGenerator(Config config) throws IOException {
+        this.config = config;
+        try (Stream<Path> files = Files.list(config.corpus)) {
+            this.corpus = files.filter(file -> file.toString().toLowerCase().endsWith(".pdf"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        if (corpus.isEmpty()) {
+            throw new IllegalArgumentException("No PDFs in " + config.corpus);
+        }
+        this.outputDir = config.outputDir != null
+                ? Files.createDirectories(config.outputDir)
+                : Files.createTempDirectory(StagingArea.defaultDirectory(), "signpdfkit-load-");
+    }
+
+    public static void main(String[] args) throws Exception {
+        Config config;
+        try {
+            config = Config.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        new LoadGenerator(config).run();
+    }
+
+    void run() throws Exception {
+        String cms = config.cmsFile == null
+                ? "MIIB"
+                : new String(Files.readAllBytes(config.cmsFile), StandardCharsets.US_ASCII).trim();
+
+        try (StubSigner stubSigner = new StubSigner(cms, config.signerMillis);
+             StubRevocationResponder responder = config.dss ? new StubRevocationResponder(config.crlBytes) : null;
+             RemoteSigner remote = new RemoteSigner(new RemoteSigner.Options(stubSigner.endpoint()))) {
+
+            Sign signer = SignPDFKit.createAsyncSigner(config.libDir, remote, new HashMap<>()).metrics(metrics);
+            if (responder != null) {
+                signer.httpClient(HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .proxy(ProxySelector.of(responder.address()))
+                        .build());
+            }
+            Verify verifier = config.verify ? SignPDFKit.createVerifier(config.libDir).metrics(metrics) : null;
+
+            System.out.printf("corpus=%d files concurrency=%d rate=%s dss=%b verify=%b output=%s%n",
+                    corpus.size(), config.concurrency, config.rate > 0 ? config.rate + "/s" : "closed-loop",
+                    config.dss, config.verify, outputDir);
+
+            drive(signer, verifier, config.warmupSeconds);
+            metrics.reset();
+            endToEnd.reset();
+            completed.reset();
+            verifyFailures.reset();
+
+            GcSnapshot before = GcSnapshot.take();
+            resetPeakHeap();
+            long start = System.nanoTime();
+            recording = true;
+            drive(signer, verifier, config.durationSeconds);
+            recording = false;
+            long elapsed = System.nanoTime() - start;
+            report(elapsed, GcSnapshot.take().minus(before));
+        } finally {
+            if (config.outputDir == null) {
+                deleteOutputs();
+            }
+        }
+    }
+
+    // The default output directory is on tmpfs, so it must not outlive the run
+    private void deleteOutputs() {
+        try (Stream<Path> files = Files.walk(outputDir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to delete " + outputDir + ": " + e.getMessage());
+        }
+    }
+
+    private void drive(Sign signer, Verify verifier, int seconds) throws InterruptedException {
+        if (seconds <= 0) {
+            return;
+        }
+        ExecutorService workers = Executors.newFixedThreadPool(config.concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "signpdfkit-load");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        try {
+            if (config.rate > 0) {
+                driveOpenLoop(workers, signer, verifier, end);
+            } else {
+                driveClosedLoop(workers, signer, verifier, end);
+            }
+        } finally {
+            workers.shutdown();
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    // Submits on schedule; arrivals queue for the workers instead of waiting for one
+    private void driveOpenLoop(ExecutorService workers, Sign signer, Verify verifier, long end)
+            throws InterruptedException {
+        long interval = (long) (1_000_000_000L / config.rate);
+        long nextStart = System.nanoTime();
+        while (nextStart < end) {
+            long wait = nextStart - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            long scheduled = nextStart;
+            workers.execute(() -> signOne(signer, verifier, scheduled));
+            nextStart += interval;
+        }
+    }
+
+    // Keeps exactly --concurrency signatures in progress
+    private void driveClosedLoop(ExecutorService workers, Sign signer, Verify verifier, long end)
+            throws InterruptedException {
+        Semaphore slots = new Semaphore(config.concurrency);
+        while (System.nanoTime() < end) {
+            slots.acquire();
+            long scheduled = System.nanoTime();
+            workers.execute(() -> {
+                try {
+                    signOne(signer, verifier, scheduled);
+                } finally {
+                    slots.release();
+                }
+            });
+        }
+    }
+
+    private void signOne(Sign signer, Verify verifier, long scheduled) {
+        long n = sequence.getAndIncrement();
+        Path input = corpus.get((int) (n % corpus.size()));
+        // One output per worker thread, overwritten by each of its signatures
+        Path output = outputDir.resolve("load-" + Thread.currentThread().getId() + ".pdf");
+
+        SignResult result = signer.signPdfResult(new SignPdfOptions(input.toString(), output.toString())
+                .fieldId("LoadGenerator" + n)
+                .dss(config.dss ? DSS.YES : DSS.NO));
+        if (result.isSuccess() && verifier != null && !verifier.verifyResult(output.toString()).isValid()) {
+            verifyFailures.increment();
+        }
+
+        if (recording) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduled);
+            endToEnd.recordValue(Math.min(endToEnd.getHighestTrackableValue(), Math.max(0, micros)));
+            completed.increment();
+        }
+    }
+
+    private void report(long elapsedNanos, GcSnapshot gc) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%n=== %d signatures in %.1fs: %.1f/s ===%n", completed.sum(), seconds, completed.sum() / seconds);
+        System.out.printf("end-to-end   p50=%dus p90=%dus p99=%dus p999=%dus max=%dus%n",
+                endToEnd.getValueAtPercentile(50.0), endToEnd.getValueAtPercentile(90.0),
+                endToEnd.getValueAtPercentile(99.0), endToEnd.getValueAtPercentile(99.9), endToEnd.getMaxValue());
+        System.out.print(metrics);
+        if (config.verify) {
+            System.out.printf("verify       invalid=%d%n", verifyFailures.sum());
+        }
+
+        long heapPeak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                heapPeak += pool.getPeakUsage().getUsed();
+            }
+        }
+        long heapMax = Runtime.getRuntime().maxMemory();
+        System.out.printf("gc           collections=%d time=%dms (%.2f%% of wall)%n",
+                gc.collections, gc.millis, 100.0 * gc.millis / (elapsedNanos / 1e6));
+        System.out.printf("heap         peak=%dMB max=%dMB%n", heapPeak >> 20, heapMax >> 20);
+    }
+
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static final class GcSnapshot {
+        final long collections;
+        final long millis;
+
+        GcSnapshot(long collections, long millis) {
+            this.collections = collections;
+            this.millis = millis;
+        }
+
+        static GcSnapshot take() {
+            long collections = 0;
+            long millis = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                collections += Math.max(0, gc.getCollectionCount());
+                millis += Math.max(0, gc.getCollectionTime());
+            }
+            return new GcSnapshot(collections, millis);
+        }
+
+        GcSnapshot minus(GcSnapshot other) {
+            return new GcSnapshot(collections - other.collections, millis - other.millis);
+        }
+    }
+
+    // Remote signing endpoint answering every digest with the same CMS
+    static final class StubSigner implements AutoCloseable {
+        private final HttpServer server;
+
+        StubSigner(String cms, int delayMillis) throws IOException {
+            byte[] response = ("{\"cms\":\"" + cms + "\"}").getBytes(StandardCharsets.UTF_8);
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/sign", exchange -> {
+                exchange.getRequestBody().readAllBytes();
+                if (delayMillis > 0) {
+                    try {
+                        Thread.sleep(delayMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, response.length);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(response);
+                }
+            });
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.start();
+        }
+
+        URI endpoint() {
+            return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/sign");
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+            ((ExecutorService) server.getExecutor()).shutdownNow();
+        }
+    }
+
+    /**
+     * Used as the HTTP proxy of the signer's client, so every OCSP request
+     * (POST) and CRL download (GET) is answered locally whatever its URL.
+     */
+    static final class StubRevocationResponder implements AutoCloseable {
+        private final HttpServer server;
+
+        StubRevocationResponder(int crlBytes) throws IOException {
+            ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+            byte[] ocsp = RevocationFixtures.ocspResponse(now, now.plusDays(1));
+            byte[] crl = RevocationFixtures.crl(now, now.plusDays(7), crlBytes);
+
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/", exchange -> {
+                exchange.getRequestBody().readAllBytes();
+                byte[] body = "POST".equals(exchange.getRequestMethod()) ? ocsp : crl;
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.start();
+        }
+
+        InetSocketAddress address() {
+            return server.getAddress();
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+            ((ExecutorService) server.getExecutor()).shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.signpdfkit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LruTtlStoreTest {
+
+    private static final long ENTRY_FILE_BYTES = 1000 + Long.BYTES;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void diskTierEvictsLeastRecentlyUsedFiles() throws IOException {
+        LruTtlStore store = new LruTtlStore(1, 1 << 20, dir, 3 * ENTRY_FILE_BYTES);
+        long expiresAt = System.currentTimeMillis() + 60_000;
+
+        store.put("a", new byte[1000], expiresAt);
+        store.put("b", new byte[1000], expiresAt);
+        store.put("c", new byte[1000], expiresAt);
+        assertArrayEquals(new byte[1000], store.get("a"));      // from disk, "b" is now eldest
+        store.put("d", new byte[1000], expiresAt);
+
+        assertEquals(1, store.diskEvictions());
+        assertEquals(3, files());
+        assertEquals(3 * ENTRY_FILE_BYTES, store.diskBytes());
+        assertNull(store.get("b"));
+        assertArrayEquals(new byte[1000], store.get("a"));
+    }
+
+    @Test
+    void expiredFilesAreSweptOnWrite() throws Exception {
+        LruTtlStore store = new LruTtlStore(1, 1 << 20, dir, 1 << 20);
+        long now = System.currentTimeMillis();
+
+        store.put("short", new byte[1000], now + 100);
+        store.put("long", new byte[1000], now + 60_000);
+        assertEquals(2, files());
+
+        Thread.sleep(150);
+        store.put("other", new byte[1000], now + 60_000);
+
+        assertEquals(2, files());
+        assertEquals(2 * ENTRY_FILE_BYTES, store.diskBytes());
+        assertEquals(0, store.diskEvictions());
+    }
+
+    @Test
+    void restartIndexesExistingFilesAndEnforcesLimit() throws IOException {
+        LruTtlStore first = new LruTtlStore(10, 1 << 20, dir, 1 << 20);
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        for (int i = 0; i < 4; i++) {
+            first.put("key" + i, new byte[1000], expiresAt);
+        }
+        Files.write(dir.resolve("entry123.tmp"), new byte[10]);  // interrupted write
+
+        LruTtlStore restarted = new LruTtlStore(10, 1 << 20, dir, 2 * ENTRY_FILE_BYTES);
+
+        assertEquals(2, restarted.diskEvictions());
+        assertEquals(2 * ENTRY_FILE_BYTES, restarted.diskBytes());
+        assertEquals(2, files());
+        assertTrue(Files.notExists(dir.resolve("entry123.tmp")));
+    }
+
+    @Test
+    void invalidateRemovesFileFromIndex() throws IOException {
+        LruTtlStore store = new LruTtlStore(10, 1 << 20, dir, 1 << 20);
+        store.put("key", new byte[1000], System.currentTimeMillis() + 60_000);
+
+        store.invalidate("key");
+
+        assertNull(store.get("key"));
+        assertEquals(0, files());
+        assertEquals(0, store.diskBytes());
+    }
+
+    @Test
+    void concurrentWritesAndSweepsKeepIndexInStepWithDirectory() throws Exception {
+        LruTtlStore store = new LruTtlStore(1, 1 << 20, dir, 3 * ENTRY_FILE_BYTES);
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int offset = t;
+                writers.add(pool.submit(() -> {
+                    for (int i = 0; i < 300; i++) {
+                        String key = "key" + ((i + offset) % 6);
+                        store.put(key, new byte[1000], expiresAt);
+                        store.get(key);
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // Every indexed file exists, and nothing on disk is left unindexed
+        assertEquals(fileBytes(), store.diskBytes());
+        assertTrue(store.diskBytes() <= 3 * ENTRY_FILE_BYTES);
+    }
+
+    private long fileBytes() throws IOException {
+        try (Stream<Path> listing = Files.list(dir)) {
+            return listing.mapToLong(file -> file.toFile().length()).sum();
+        }
+    }
+
+    private long files() throws IOException {
+        try (Stream<Path> listing = Files.list(dir)) {
+            return listing.count();
+        }
+    }
+}
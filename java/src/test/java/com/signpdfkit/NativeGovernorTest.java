@@ -0,0 +1,123 @@
+package com.signpdfkit;
+
+import com.signpdfkit.NativeGovernor.Lane;
+import com.signpdfkit.NativeGovernor.Permit;
+import com.signpdfkit.NativeGovernor.RejectedException;
+import com.signpdfkit.SignPDFKit.Sign;
+import com.signpdfkit.SignPDFKit.Sign.SignPdfOptions;
+import com.signpdfkit.SignPDFKit.SignPDFLibrary;
+import com.signpdfkit.SignPDFKit.Verify;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NativeGovernorTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void fullQueueIsRejectedImmediately() throws Exception {
+        NativeGovernor governor = new NativeGovernor(1, 1, 1, 0, Duration.ofSeconds(10));
+        Permit held = governor.acquire(Lane.CPU);
+
+        CompletableFuture<Permit> queued = CompletableFuture.supplyAsync(() -> governor.acquire(Lane.CPU));
+        awaitQueueDepth(governor, 1);
+
+        long start = System.nanoTime();
+        RejectedException rejected = assertThrows(RejectedException.class, () -> governor.acquire(Lane.CPU));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1), "rejected without waiting");
+        assertEquals(Lane.CPU, rejected.lane());
+        assertFalse(rejected.timedOut());
+
+        held.close();
+        queued.get(5, TimeUnit.SECONDS).close();
+        assertEquals(1, governor.rejected(Lane.CPU));
+        assertEquals(0, governor.timedOut(Lane.CPU));
+        assertEquals(2, governor.acquired(Lane.CPU));
+        assertEquals(1, governor.maxQueueDepth(Lane.CPU));
+        assertEquals(1, governor.availablePermits(Lane.CPU));
+    }
+
+    @Test
+    void waitBeyondMaxWaitTimesOut() {
+        NativeGovernor governor = new NativeGovernor(1, 4, 1, 0, Duration.ofMillis(50));
+        try (Permit held = governor.acquire(Lane.CPU)) {
+            RejectedException rejected = assertThrows(RejectedException.class, () -> governor.acquire(Lane.CPU));
+            assertTrue(rejected.timedOut());
+        }
+
+        assertEquals(1, governor.timedOut(Lane.CPU));
+        assertEquals(1, governor.rejected(Lane.CPU));
+        assertEquals(0, governor.queueDepth(Lane.CPU));
+        assertTrue(governor.totalWaitNanos(Lane.CPU) >= TimeUnit.MILLISECONDS.toNanos(50));
+        governor.acquire(Lane.CPU).close();
+    }
+
+    @Test
+    void lanesAreIndependent() {
+        NativeGovernor governor = new NativeGovernor(1, 0, 1, 0, Duration.ofMillis(50));
+        try (Permit cpu = governor.acquire(Lane.CPU)) {
+            governor.acquire(Lane.NETWORK).close();
+            assertThrows(RejectedException.class, () -> governor.acquire(Lane.CPU));
+        }
+    }
+
+    @Test
+    void closingTwiceReleasesOnce() {
+        NativeGovernor governor = new NativeGovernor(1, 0, 1, 0, Duration.ofMillis(50));
+        Permit permit = governor.acquire(Lane.CPU);
+        permit.close();
+        permit.close();
+
+        assertEquals(1, governor.availablePermits(Lane.CPU));
+    }
+
+    @Test
+    void permitsAreReleasedWhenCallsFail() {
+        NativeGovernor governor = new NativeGovernor(1, 0, 1, 0, Duration.ofMillis(50));
+        SignPDFLibrary broken = (SignPDFLibrary) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{SignPDFLibrary.class}, (proxy, method, args) -> {
+                    throw new IllegalStateException(method.getName() + " crashed");
+                });
+
+        // Native call throwing inside the CPU lane
+        Sign crashing = new Sign(broken, (digest, options) -> "CMS", new HashMap<>()).governor(governor);
+        assertEquals(4, crashing.signPdfResult(document()).responseCode());
+        assertNull(new Verify(broken).governor(governor).verify(dir.resolve("in.pdf").toString()));
+
+        // Remote signer throwing inside the network lane
+        Sign failingSigner = new Sign(new FakeSignPDFLibrary(100, 1), (digest, options) -> {
+            throw new IllegalStateException("remote down");
+        }, new HashMap<>()).governor(governor);
+        assertEquals(4, failingSigner.signPdfResult(document()).responseCode());
+
+        assertEquals(1, governor.availablePermits(Lane.CPU));
+        assertEquals(1, governor.availablePermits(Lane.NETWORK));
+        assertEquals(0, governor.rejected(Lane.CPU) + governor.rejected(Lane.NETWORK));
+    }
+
+    private SignPdfOptions document() {
+        return new SignPdfOptions(dir.resolve("in.pdf").toString(), dir.resolve("out.pdf").toString());
+    }
+
+    private static void awaitQueueDepth(NativeGovernor governor, int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (governor.queueDepth(Lane.CPU) < depth) {
+            assertTrue(System.nanoTime() < deadline, "caller never queued");
+            Thread.sleep(5);
+        }
+    }
+}
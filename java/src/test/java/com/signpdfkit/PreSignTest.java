@@ -0,0 +1,51 @@
+package com.signpdfkit;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PreSignTest {
+
+    @Test
+    void readsTopLevelResponseCodeAndDataDigest() {
+        try (PreSign preSign = preSign("{\"response_code\":0,\"response_status\":\"success\","
+                + "\"data\":{\"digest\":\"abc\",\"appearance\":\"AAAA\"}}")) {
+            assertEquals(0, preSign.responseCode());
+            assertEquals("abc", preSign.digest());
+        }
+    }
+
+    @Test
+    void keysOfTheSameNameElsewhereAreIgnored() {
+        // Decoys before the real keys: nested objects, and key-like text inside strings
+        try (PreSign preSign = preSign("{\"meta\":{\"response_code\":7,\"digest\":\"nested\"},"
+                + "\"note\":\"\\\"digest\\\":\\\"quoted\\\", \\\"response_code\\\":9\","
+                + "\"response_code\":1,"
+                + "\"data\":{\"field\":{\"digest\":\"deeper\"},\"digest\":\"real\"}}")) {
+            assertEquals(1, preSign.responseCode());
+            assertEquals("real", preSign.digest());
+        }
+    }
+
+    @Test
+    void escapedDigestIsDecoded() {
+        try (PreSign preSign = preSign("{\"response_code\":0,\"data\":{\"digest\":\"a\\/b\\u0063\"}}")) {
+            assertEquals("a/bc", preSign.digest());
+        }
+    }
+
+    @Test
+    void missingKeysAreReported() {
+        try (PreSign preSign = preSign("{\"response_status\":\"failed\",\"digest\":\"top-level\"}")) {
+            assertThrows(IllegalStateException.class, preSign::responseCode);
+            assertThrows(IllegalStateException.class, preSign::digest);
+        }
+    }
+
+    private static PreSign preSign(String json) {
+        return PreSign.copyOf(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,102 @@
+package com.signpdfkit;
+
+import com.signpdfkit.SignPDFKit.Sign;
+import com.signpdfkit.SignPDFKit.Sign.SignPdfOptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PreparedSignatureTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void preparedTokenRoundTripsAndCompletes() throws Exception {
+        FakeSignPDFLibrary lib = new FakeSignPDFLibrary(100, 1);
+        Sign signer = new Sign(lib, (digest, options) -> "CMS", new HashMap<>());
+
+        PreparedSignature token = signer.prepare(options("in.pdf", "out.pdf"));
+        assertTrue(token.isSuccess());
+        assertEquals(FakeSignPDFLibrary.DIGEST, token.digest());
+        assertEquals(0, lib.liveAllocations(), "a token holds no native memory");
+
+        PreparedSignature restored = PreparedSignature.fromJson(token.toJson());
+        assertEquals(token.id(), restored.id());
+        assertEquals(token.digest(), restored.digest());
+        assertEquals(token.toJson(), restored.toJson());
+
+        SignResult result = signer.complete(restored, "CMS");
+        assertTrue(result.isSuccess(), result.toJson());
+        assertTrue(Files.size(dir.resolve("out.pdf")) > 0);
+        assertTrue(restored.isCompleted());
+        assertEquals(0, lib.liveAllocations());
+    }
+
+    @Test
+    void tokenIsCompletedOnlyOnce() throws Exception {
+        Sign signer = new Sign(new FakeSignPDFLibrary(100, 1), (digest, options) -> "CMS", new HashMap<>())
+                .journal(new PreparedSignatureJournal(dir.resolve("journal")));
+
+        PreparedSignature token = signer.prepare(options("in.pdf", "out.pdf"));
+        String json = token.toJson();
+        assertTrue(signer.complete(token, "CMS").isSuccess());
+
+        assertEquals(3, signer.complete(token, "CMS").responseCode());
+        assertEquals(3, signer.complete(PreparedSignature.fromJson(json), "CMS").responseCode(),
+                "a copy restored after completion");
+    }
+
+    @Test
+    void failedCompletionCanBeRetried() throws Exception {
+        Sign signer = new Sign(new FakeSignPDFLibrary(100, 1), (digest, options) -> "CMS", new HashMap<>());
+
+        // The fake library cannot write into a missing directory
+        PreparedSignature token = signer.prepare(options("in.pdf", "missing/out.pdf"));
+        assertEquals(4, signer.complete(token, "CMS").responseCode());
+        assertFalse(token.isCompleted());
+
+        Files.createDirectories(dir.resolve("missing"));
+        assertTrue(signer.complete(token, "CMS").isSuccess());
+    }
+
+    @Test
+    void journalRecoversPendingTokensAfterRestart() throws Exception {
+        Path journalDir = dir.resolve("journal");
+        Sign before = new Sign(new FakeSignPDFLibrary(100, 1), (digest, options) -> "CMS", new HashMap<>())
+                .journal(new PreparedSignatureJournal(journalDir));
+        PreparedSignature first = before.prepare(options("a.pdf", "a-signed.pdf"));
+        Thread.sleep(5);
+        PreparedSignature second = before.prepare(options("b.pdf", "b-signed.pdf"));
+
+        // A new process: fresh signer and journal over the same directory
+        PreparedSignatureJournal journal = new PreparedSignatureJournal(journalDir);
+        Sign after = new Sign(new FakeSignPDFLibrary(100, 1), (digest, options) -> "CMS", new HashMap<>())
+                .journal(journal);
+
+        List<PreparedSignature> pending = journal.pending();
+        assertEquals(2, pending.size());
+        assertEquals(first.id(), pending.get(0).id(), "oldest first");
+        assertEquals(second.id(), pending.get(1).id());
+
+        for (PreparedSignature token : pending) {
+            assertTrue(after.complete(token, "CMS").isSuccess());
+        }
+        assertTrue(journal.pending().isEmpty());
+        assertTrue(Files.exists(dir.resolve("a-signed.pdf")));
+        assertTrue(Files.exists(dir.resolve("b-signed.pdf")));
+        assertEquals(3, after.complete(first, "CMS").responseCode(), "completed tokens leave the journal");
+    }
+
+    private SignPdfOptions options(String input, String output) {
+        return new SignPdfOptions(dir.resolve(input).toString(), dir.resolve(output).toString());
+    }
+}
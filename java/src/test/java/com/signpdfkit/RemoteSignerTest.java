@@ -0,0 +1,243 @@
+package com.signpdfkit;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.signpdfkit.StubSigningServer.Reply;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RemoteSignerTest {
+
+    private static final Map<String, Object> OPTIONS = Map.of("email", "signer@example.com", "passcode", "1234");
+
+    private StubSigningServer stub;
+    private RemoteSigner signer;
+
+    @AfterEach
+    void close() {
+        if (signer != null) {
+            signer.close();
+        }
+        if (stub != null) {
+            stub.close();
+        }
+    }
+
+    @Test
+    void postsDigestWithOptions() throws Exception {
+        stub = new StubSigningServer(request -> Reply.ok("{\"cms\":\"cms-" + request.get("digest").getAsString() + "\"}"));
+        signer = new RemoteSigner(new RemoteSigner.Options(stub.uri("/sign")));
+
+        assertEquals("cms-abc", signer.apply("abc", OPTIONS));
+
+        JsonObject request = stub.requests.get(0);
+        assertEquals("abc", request.get("digest").getAsString());
+        assertEquals("signer@example.com", request.get("email").getAsString());
+        assertEquals("1234", request.get("passcode").getAsString());
+    }
+
+    @Test
+    void singleDigestFailures() throws Exception {
+        stub = new StubSigningServer(request -> Reply.status(500, "{\"error\":\"hsm offline\"}"));
+        signer = new RemoteSigner(new RemoteSigner.Options(stub.uri("/sign")));
+        assertTrue(failure(signer.sign("abc", OPTIONS)).getMessage().contains("HTTP Error: 500"));
+        stub.close();
+
+        stub = new StubSigningServer(request -> Reply.ok("{\"cms\":null}"));
+        signer = new RemoteSigner(new RemoteSigner.Options(stub.uri("/sign")));
+        assertTrue(failure(signer.sign("abc", OPTIONS)).getMessage().startsWith("Invalid response"));
+    }
+
+    @Test
+    void fullBatchIsSentAtOnceAndAnsweredInOrder() throws Exception {
+        stub = new StubSigningServer(echoBatch());
+        signer = batchSigner(4, Duration.ofSeconds(10));
+
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(signer.sign("d" + i, OPTIONS));
+        }
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals("cms-d" + i, results.get(i).get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, stub.requests.size());
+        JsonObject request = stub.requests.get(0);
+        assertEquals(4, request.getAsJsonArray("digests").size());
+        assertEquals("signer@example.com", request.get("email").getAsString());
+    }
+
+    @Test
+    void lingerFlushesPartialBatch() throws Exception {
+        stub = new StubSigningServer(echoBatch());
+        signer = batchSigner(32, Duration.ofMillis(20));
+
+        CompletableFuture<String> first = signer.sign("d0", OPTIONS);
+        CompletableFuture<String> second = signer.sign("d1", OPTIONS);
+        CompletableFuture<String> otherOptions = signer.sign("d2", Map.of("email", "other@example.com"));
+
+        assertEquals("cms-d0", first.get(5, TimeUnit.SECONDS));
+        assertEquals("cms-d1", second.get(5, TimeUnit.SECONDS));
+        assertEquals("cms-d2", otherOptions.get(5, TimeUnit.SECONDS));
+        assertEquals(2, stub.requests.size(), "one batch per distinct options");
+    }
+
+    @Test
+    void nullOrNonStringElementsFailOnlyTheirDigest() throws Exception {
+        stub = new StubSigningServer(request -> Reply.ok("{\"cms\":[\"AAA\",null,42,{\"x\":1}]}"));
+        signer = batchSigner(4, Duration.ofSeconds(10));
+
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(signer.sign("d" + i, OPTIONS));
+        }
+
+        assertEquals("AAA", results.get(0).get(5, TimeUnit.SECONDS));
+        for (int i = 1; i < 4; i++) {
+            assertTrue(failure(results.get(i)).getMessage().contains("no CMS at index " + i));
+        }
+    }
+
+    @Test
+    void blockingApplyDoesNotHangOnBadBatchResponse() throws IOException {
+        stub = new StubSigningServer(request -> Reply.ok("{\"cms\":[null]}"));
+        signer = batchSigner(1, Duration.ofSeconds(10));
+
+        RuntimeException error = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> assertThrows(RuntimeException.class, () -> signer.apply("d0", OPTIONS)));
+        assertEquals("Error signing digest", error.getMessage());
+    }
+
+    @Test
+    void malformedBatchResponsesFailEveryDigest() throws Exception {
+        for (String body : new String[]{"{\"cms\":[\"AAA\"]}", "{\"cms\":\"AAA\"}", "{}", "not json", ""}) {
+            stub = new StubSigningServer(request -> Reply.ok(body));
+            signer = batchSigner(2, Duration.ofSeconds(10));
+
+            CompletableFuture<String> first = signer.sign("d0", OPTIONS);
+            CompletableFuture<String> second = signer.sign("d1", OPTIONS);
+
+            assertFalse(failure(first).getMessage().isEmpty(), body);
+            assertFalse(failure(second).getMessage().isEmpty(), body);
+            signer.close();
+            stub.close();
+        }
+        signer = null;
+        stub = null;
+    }
+
+    @Test
+    void httpErrorFailsEveryDigest() throws Exception {
+        stub = new StubSigningServer(request -> Reply.status(503, "busy"));
+        signer = batchSigner(2, Duration.ofSeconds(10));
+
+        CompletableFuture<String> first = signer.sign("d0", OPTIONS);
+        CompletableFuture<String> second = signer.sign("d1", OPTIONS);
+
+        assertTrue(failure(first).getMessage().contains("HTTP Error: 503"));
+        assertTrue(failure(second).getMessage().contains("HTTP Error: 503"));
+    }
+
+    @Test
+    void nullOptionsAreSignedFromLingerTimer() throws Exception {
+        stub = new StubSigningServer(echoBatch());
+        signer = batchSigner(32, Duration.ofMillis(10));
+
+        assertEquals("cms-d0", signer.sign("d0", null).get(5, TimeUnit.SECONDS));
+        assertEquals(1, stub.requests.get(0).size(), "only the digests are posted");
+    }
+
+    @Test
+    void closedSignerFailsInsteadOfQueueing() throws Exception {
+        stub = new StubSigningServer(echoBatch());
+        signer = batchSigner(32, Duration.ofMillis(10));
+        signer.close();
+
+        assertTrue(failure(signer.sign("d0", OPTIONS)).getMessage().contains("closed"));
+    }
+
+    @Test
+    void closeSendsLingeringBatch() throws Exception {
+        stub = new StubSigningServer(echoBatch());
+        signer = batchSigner(32, Duration.ofMinutes(10));
+
+        CompletableFuture<String> first = signer.sign("d0", OPTIONS);
+        CompletableFuture<String> second = signer.sign("d1", OPTIONS);
+        signer.close();
+
+        assertEquals("cms-d0", first.get(5, TimeUnit.SECONDS));
+        assertEquals("cms-d1", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, stub.requests.size());
+        assertTrue(failure(signer.sign("d2", OPTIONS)).getMessage().contains("closed"));
+    }
+
+    @Test
+    void onlyCredentialsArePosted() throws Exception {
+        stub = new StubSigningServer(request -> Reply.ok("{\"cms\":\"CMS\"}"));
+        signer = new RemoteSigner(new RemoteSigner.Options(stub.uri("/sign")));
+
+        signer.apply("abc", Map.of("email", "signer@example.com", "passcode", "1234", "pin", "0000", "slot", 2));
+
+        JsonObject request = stub.requests.get(0);
+        assertEquals(3, request.size(), request.toString());
+        assertFalse(request.has("pin"));
+    }
+
+    @Test
+    void batchesAreKeyedOnCredentialsNotTheCallersMap() throws Exception {
+        stub = new StubSigningServer(echoBatch());
+        signer = batchSigner(2, Duration.ofSeconds(10));
+        Map<String, Object> options = new HashMap<>(OPTIONS);
+
+        CompletableFuture<String> first = signer.sign("d0", options);
+        options.put("email", "changed@example.com");
+        CompletableFuture<String> second = signer.sign("d1", new HashMap<>(OPTIONS));
+
+        assertEquals("cms-d0", first.get(5, TimeUnit.SECONDS));
+        assertEquals("cms-d1", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, stub.requests.size());
+        assertEquals("signer@example.com", stub.requests.get(0).get("email").getAsString());
+    }
+
+    private RemoteSigner batchSigner(int maxBatchSize, Duration linger) {
+        return new RemoteSigner(new RemoteSigner.Options(stub.uri("/sign"))
+                .batchEndpoint(stub.uri("/sign/batch"))
+                .maxBatchSize(maxBatchSize)
+                .linger(linger));
+    }
+
+    // Answers each digest d with "cms-d", in request order
+    private static Function<JsonObject, Reply> echoBatch() {
+        return request -> {
+            JsonArray cms = new JsonArray();
+            for (JsonElement digest : request.getAsJsonArray("digests")) {
+                cms.add("cms-" + digest.getAsString());
+            }
+            JsonObject response = new JsonObject();
+            response.add("cms", cms);
+            return Reply.ok(response.toString());
+        };
+    }
+
+    private static Throwable failure(CompletableFuture<String> result) throws Exception {
+        return assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS)).getCause();
+    }
+}
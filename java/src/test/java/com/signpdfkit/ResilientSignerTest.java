@@ -0,0 +1,194 @@
+package com.signpdfkit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ResilientSignerTest {
+
+    private static final Map<String, Object> OPTIONS = Map.of("email", "signer@example.com");
+
+    private ResilientSigner signer;
+
+    @AfterEach
+    void close() {
+        if (signer != null) {
+            signer.close();
+        }
+    }
+
+    @Test
+    void fastFailuresRunEveryRetryRound() throws Exception {
+        Endpoint first = Endpoint.failing(0);
+        Endpoint second = Endpoint.failing(0);
+        signer = new ResilientSigner(List.of(first, second), hedged().maxRetries(1));
+
+        assertFails(signer.sign("abc", OPTIONS));
+
+        sleep(200);
+        assertEquals(2, first.attempts.get() + second.attempts.get(), "one attempt per round");
+        assertEquals(1, signer.retries());
+        assertEquals(0, signer.hedges());
+    }
+
+    @Test
+    void hedgeOfFailedRoundIsCancelled() throws Exception {
+        // The backoff outlasts the hedge delay, so a leftover hedge would fire between the rounds
+        Endpoint first = Endpoint.failing(0);
+        Endpoint second = Endpoint.failing(0);
+        signer = new ResilientSigner(List.of(first, second), hedged().maxRetries(1)
+                .minHedgeDelay(Duration.ofMillis(100)).maxHedgeDelay(Duration.ofMillis(100))
+                .retryBackoff(Duration.ofMillis(1000)));
+
+        assertFails(signer.sign("abc", OPTIONS));
+
+        assertEquals(0, signer.hedges());
+        assertEquals(1, signer.retries());
+        assertEquals(2, first.attempts.get() + second.attempts.get(), "the retry round ran");
+    }
+
+    @Test
+    void slowFailuresAreHedgedOncePerRound() throws Exception {
+        Endpoint first = Endpoint.failing(100);
+        Endpoint second = Endpoint.failing(100);
+        signer = new ResilientSigner(List.of(first, second), hedged().maxRetries(1));
+
+        assertFails(signer.sign("abc", OPTIONS));
+
+        sleep(300);
+        assertEquals(4, first.attempts.get() + second.attempts.get(), "primary and hedge in both rounds");
+        assertEquals(2, signer.hedges());
+        assertEquals(1, signer.retries());
+    }
+
+    @Test
+    void staleHedgeDoesNotJoinRetryRound() throws Exception {
+        // The primary fails before the hedge delay; the retry round is still running when the
+        // first round's hedge would have fired, and must not get a second hedge from it
+        Endpoint first = Endpoint.failingThenSucceeding(1, 0, 150);
+        Endpoint second = Endpoint.succeeding(150);
+        signer = new ResilientSigner(List.of(first, second), hedged().maxRetries(2)
+                .minHedgeDelay(Duration.ofMillis(60)).maxHedgeDelay(Duration.ofMillis(60)));
+
+        assertEquals("CMS", signer.sign("abc", OPTIONS).get(5, TimeUnit.SECONDS));
+
+        sleep(300);
+        assertEquals(1, signer.retries());
+        assertEquals(1, signer.hedges(), "only the retry round's own hedge");
+        assertEquals(3, first.attempts.get() + second.attempts.get());
+    }
+
+    @Test
+    void hedgeWinsOverSlowPrimary() throws Exception {
+        Endpoint slow = Endpoint.succeeding(500);
+        Endpoint fast = Endpoint.succeeding(0);
+        signer = new ResilientSigner(List.of(slow, fast), hedged());
+
+        assertEquals("CMS", signer.sign("abc", OPTIONS).get(5, TimeUnit.SECONDS));
+
+        // The winner is counted right after it completed the call
+        sleep(100);
+        assertEquals(1, slow.attempts.get());
+        assertEquals(1, fast.attempts.get());
+        assertEquals(1, signer.hedges());
+        assertEquals(1, signer.hedgeWins());
+        assertEquals(0, signer.retries());
+    }
+
+    @Test
+    void withoutHedgingOnlyRetriesAreSent() throws Exception {
+        Endpoint only = Endpoint.failing(50);
+        signer = new ResilientSigner(List.of(only), new ResilientSigner.Options()
+                .maxRetries(2).retryBackoff(Duration.ofMillis(5)));
+
+        assertFails(signer.sign("abc", OPTIONS));
+
+        assertEquals(3, only.attempts.get());
+        assertEquals(2, signer.retries());
+        assertEquals(0, signer.hedges());
+    }
+
+    @Test
+    void deadlineBoundsTheCall() throws Exception {
+        Endpoint hanging = Endpoint.succeeding(10_000);
+        signer = new ResilientSigner(List.of(hanging), new ResilientSigner.Options()
+                .deadline(Duration.ofMillis(100)));
+
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> signer.sign("abc", OPTIONS).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, error.getCause());
+        // Counted by the timer right after it failed the call
+        sleep(100);
+        assertEquals(1, signer.deadlinesExceeded());
+    }
+
+    // Hedge after 20ms, retry after at most 5ms
+    private static ResilientSigner.Options hedged() {
+        return new ResilientSigner.Options()
+                .hedging(true)
+                .minHedgeDelay(Duration.ofMillis(20))
+                .maxHedgeDelay(Duration.ofMillis(20))
+                .retryBackoff(Duration.ofMillis(5));
+    }
+
+    private static void assertFails(CompletableFuture<String> result) {
+        ExecutionException error = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertEquals("signer down", error.getCause().getMessage());
+    }
+
+    private static void sleep(long millis) throws InterruptedException {
+        Thread.sleep(millis);
+    }
+
+    // Signer answering after a fixed delay: the first 'failures' attempts fail, later ones succeed
+    private static final class Endpoint implements SignPDFKit.AsyncSigner {
+        final AtomicInteger attempts = new AtomicInteger();
+        private final int failures;
+        private final long failMillis;
+        private final long successMillis;
+
+        private Endpoint(int failures, long failMillis, long successMillis) {
+            this.failures = failures;
+            this.failMillis = failMillis;
+            this.successMillis = successMillis;
+        }
+
+        static Endpoint failing(long millis) {
+            return new Endpoint(Integer.MAX_VALUE, millis, 0);
+        }
+
+        static Endpoint succeeding(long millis) {
+            return new Endpoint(0, 0, millis);
+        }
+
+        static Endpoint failingThenSucceeding(int failures, long failMillis, long successMillis) {
+            return new Endpoint(failures, failMillis, successMillis);
+        }
+
+        @Override
+        public CompletableFuture<String> sign(String digest, Map<String, Object> options) {
+            boolean fail = attempts.incrementAndGet() <= failures;
+            CompletableFuture<String> result = new CompletableFuture<>();
+            CompletableFuture.delayedExecutor(fail ? failMillis : successMillis, TimeUnit.MILLISECONDS).execute(() -> {
+                if (fail) {
+                    result.completeExceptionally(new IllegalStateException("signer down"));
+                } else {
+                    result.complete("CMS");
+                }
+            });
+            return result;
+        }
+    }
+}
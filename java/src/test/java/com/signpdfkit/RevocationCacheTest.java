@@ -0,0 +1,153 @@
+package com.signpdfkit;
+
+import com.signpdfkit.SignPDFKit.DSS;
+import com.signpdfkit.SignPDFKit.Sign;
+import com.signpdfkit.SignPDFKit.Sign.SignPdfOptions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RevocationCacheTest {
+
+    @TempDir
+    Path dir;
+
+    private RevocationFixtures responder;
+    private FakeSignPDFLibrary lib;
+
+    @BeforeEach
+    void startResponder() throws IOException {
+        responder = new RevocationFixtures(4096, false);
+        lib = new FakeSignPDFLibrary(100, 1);
+        lib.revocationParameters(responder.revocationParameters());
+    }
+
+    @AfterEach
+    void stopResponder() {
+        responder.close();
+    }
+
+    @Test
+    void secondSignatureIsServedFromCache() {
+        RevocationCache cache = new RevocationCache();
+        Sign signer = new Sign(lib, (digest, options) -> "CMS", new HashMap<>()).revocationCache(cache);
+
+        assertEquals("{\"response_code\":0,\"response_status\":\"success\"}", signer.signPdf(document(1)));
+        assertEquals(1, responder.ocspRequests.get());
+        assertEquals(1, responder.crlRequests.get());
+        assertEquals(0, cache.hits());
+        assertEquals(2, cache.misses());
+
+        assertEquals("{\"response_code\":0,\"response_status\":\"success\"}", signer.signPdf(document(2)));
+        assertEquals(1, responder.ocspRequests.get());
+        assertEquals(1, responder.crlRequests.get());
+        assertEquals(2, cache.hits());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void withoutCacheEverySignatureFetches() {
+        Sign signer = new Sign(lib, (digest, options) -> "CMS", new HashMap<>());
+
+        signer.signPdf(document(1));
+        signer.signPdf(document(2));
+
+        assertEquals(2, responder.ocspRequests.get());
+        assertEquals(2, responder.crlRequests.get());
+    }
+
+    @Test
+    void freshnessFollowsNextUpdate() throws InterruptedException {
+        RevocationCache cache = new RevocationCache();
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        byte[] request = {0x30, 0x03, 0x02, 0x01, 0x01};
+
+        cache.putOcsp("http://ocsp.test", request, RevocationFixtures.ocspResponse(now.minusDays(2), now.minusDays(1)));
+        assertNull(cache.getOcsp("http://ocsp.test", request), "responses past nextUpdate are not cached");
+
+        byte[] shortLived = RevocationFixtures.crl(now, now.plusSeconds(2), 256);
+        cache.putCrl("http://crl.test", shortLived);
+        assertArrayEquals(shortLived, cache.getCrl("http://crl.test"));
+
+        Thread.sleep(2100);
+        assertNull(cache.getCrl("http://crl.test"));
+        assertEquals(1, cache.hits());
+        assertEquals(2, cache.misses());
+    }
+
+    @Test
+    void ocspEntriesAreKeyedByRequest() {
+        RevocationCache cache = new RevocationCache();
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        byte[] response = RevocationFixtures.ocspResponse(now, now.plusDays(1));
+
+        cache.putOcsp("http://ocsp.test", new byte[]{1}, response);
+
+        assertArrayEquals(response, cache.getOcsp("http://ocsp.test", new byte[]{1}));
+        assertNull(cache.getOcsp("http://ocsp.test", new byte[]{2}));
+        assertNull(cache.getOcsp("http://other.test", new byte[]{1}));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondEntryLimit() {
+        RevocationCache cache = new RevocationCache(2, 1 << 20, null, Duration.ofMinutes(5));
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        byte[] crl = RevocationFixtures.crl(now, now.plusDays(1), 256);
+
+        cache.putCrl("http://a.test", crl);
+        cache.putCrl("http://b.test", crl);
+        cache.getCrl("http://a.test");
+        cache.putCrl("http://c.test", crl);
+
+        assertEquals(1, cache.evictions());
+        assertEquals(2, cache.size());
+        assertNull(cache.getCrl("http://b.test"));
+        assertArrayEquals(crl, cache.getCrl("http://a.test"));
+        assertArrayEquals(crl, cache.getCrl("http://c.test"));
+    }
+
+    @Test
+    void evictsBeyondMemoryLimit() {
+        RevocationCache cache = new RevocationCache(100, 10_000, null, Duration.ofMinutes(5));
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+
+        for (int i = 0; i < 5; i++) {
+            cache.putCrl("http://crl" + i + ".test", RevocationFixtures.crl(now, now.plusDays(1), 4096));
+        }
+
+        assertTrue(cache.memoryBytes() <= 10_000, "memory bytes " + cache.memoryBytes());
+        assertEquals(5 - cache.size(), cache.evictions());
+        assertNull(cache.getCrl("http://crl0.test"));
+    }
+
+    @Test
+    void diskTierSurvivesRestart() {
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        byte[] crl = RevocationFixtures.crl(now, now.plusDays(1), 1024);
+        new RevocationCache(10, 1 << 20, dir, Duration.ofMinutes(5)).putCrl("http://crl.test", crl);
+
+        RevocationCache restarted = new RevocationCache(10, 1 << 20, dir, Duration.ofMinutes(5));
+
+        assertArrayEquals(crl, restarted.getCrl("http://crl.test"));
+        assertEquals(1, restarted.hits());
+        assertEquals(crl.length + Long.BYTES, restarted.diskBytes());
+    }
+
+    private SignPdfOptions document(int i) {
+        return new SignPdfOptions(dir.resolve("in" + i + ".pdf").toString(), dir.resolve("out" + i + ".pdf").toString())
+                .dss(DSS.YES);
+    }
+}
@@ -0,0 +1,118 @@
+package com.signpdfkit;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.signpdfkit.SignPDFKit.DSS;
+import com.signpdfkit.SignPDFKit.PartialRevocationPolicy;
+import com.signpdfkit.SignPDFKit.Sign;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RevocationFetchTest {
+
+    private RevocationFixtures responder;
+    private FakeSignPDFLibrary lib;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void startResponder() throws IOException {
+        responder = new RevocationFixtures(4096, false);
+        lib = new FakeSignPDFLibrary(100, 1);
+        lib.revocationParameters(responder.revocationParameters());
+        callers = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void stopResponder() {
+        callers.shutdownNow();
+        responder.close();
+    }
+
+    @Test
+    void concurrentIdenticalFetchesHitResponderOnce() throws Exception {
+        // Slow enough that every caller joins while the first fetch is still running
+        responder.ocspDelayMillis = 300;
+        responder.crlDelayMillis = 300;
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            // Separate signers without a cache: only the single flight can share the fetch
+            Sign signer = new Sign(lib, (digest, options) -> "CMS", new HashMap<>());
+            results.add(CompletableFuture.supplyAsync(() -> {
+                await(start);
+                return signer.getRevocation("CMS", DSS.YES);
+            }, callers));
+        }
+        start.countDown();
+
+        for (CompletableFuture<String> result : results) {
+            JsonObject payload = JsonParser.parseString(result.get(5, TimeUnit.SECONDS)).getAsJsonObject();
+            assertEquals(1, payload.getAsJsonArray("ocsp").size());
+            assertEquals(1, payload.getAsJsonArray("crl").size());
+        }
+        assertEquals(1, responder.ocspRequests.get());
+        assertEquals(1, responder.crlRequests.get());
+    }
+
+    @Test
+    void callDeadlineReturnsPartialData() {
+        responder.crlDelayMillis = 10_000;
+        Sign signer = new Sign(lib, (digest, options) -> "CMS", new HashMap<>())
+                .revocationTimeouts(Duration.ofSeconds(30), Duration.ofSeconds(1));
+
+        long start = System.nanoTime();
+        JsonObject payload = JsonParser.parseString(signer.getRevocation("CMS", DSS.YES)).getAsJsonObject();
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5), "bounded by the call deadline");
+        assertEquals(1, payload.getAsJsonArray("ocsp").size());
+        assertEquals(0, payload.getAsJsonArray("crl").size());
+
+        signer.partialRevocationPolicy(PartialRevocationPolicy.FAIL);
+        assertNull(signer.getRevocation("CMS", DSS.YES));
+    }
+
+    @Test
+    void callerIsNotBoundByAnotherCallersTimeout() throws Exception {
+        responder.crlDelayMillis = 500;
+        Sign impatient = new Sign(lib, (digest, options) -> "CMS", new HashMap<>())
+                .revocationTimeouts(Duration.ofMillis(100), Duration.ofSeconds(5));
+        Sign patient = new Sign(lib, (digest, options) -> "CMS", new HashMap<>())
+                .revocationTimeouts(Duration.ofSeconds(5), Duration.ofSeconds(5));
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(
+                () -> impatient.getRevocation("CMS", DSS.YES), callers);
+        Thread.sleep(50);
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(
+                () -> patient.getRevocation("CMS", DSS.YES), callers);
+
+        JsonObject cut = JsonParser.parseString(first.get(5, TimeUnit.SECONDS)).getAsJsonObject();
+        JsonObject full = JsonParser.parseString(second.get(5, TimeUnit.SECONDS)).getAsJsonObject();
+        assertEquals(0, cut.getAsJsonArray("crl").size());
+        assertEquals(1, full.getAsJsonArray("crl").size(), "the later caller's own timeout applies");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.signpdfkit;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Synthetic OCSP responses and CRLs plus a local HTTP responder serving them.
+ * The DER is structurally valid as far as RevocationCache reads it (status,
+ * thisUpdate/nextUpdate); signatures are filler bytes.
+ */
+final class RevocationFixtures implements AutoCloseable {
+
+    private static final DateTimeFormatter GENERALIZED_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss'Z'");
+    private static final DateTimeFormatter UTC_TIME = DateTimeFormatter.ofPattern("yyMMddHHmmss'Z'");
+
+    final byte[] ocspResponse;
+    final byte[] crl;
+    final AtomicInteger ocspRequests = new AtomicInteger();
+    final AtomicInteger crlRequests = new AtomicInteger();
+    // How long each responder waits before answering, to model slow or hanging servers
+    volatile long ocspDelayMillis;
+    volatile long crlDelayMillis;
+    private final HttpServer server;
+
+    RevocationFixtures(int crlBytes, boolean pem) throws IOException {
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        this.ocspResponse = ocspResponse(now, now.plusDays(1));
+        byte[] crlDer = crl(now, now.plusDays(7), crlBytes);
+        this.crl = pem ? pem(crlDer) : crlDer;
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/ocsp", exchange -> {
+            ocspRequests.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            pause(ocspDelayMillis);
+            exchange.sendResponseHeaders(200, ocspResponse.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(ocspResponse);
+            }
+        });
+        server.createContext("/crl", exchange -> {
+            crlRequests.incrementAndGet();
+            pause(crlDelayMillis);
+            exchange.sendResponseHeaders(200, crl.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(crl);
+            }
+        });
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    // get_revocation_parameters payload pointing at this responder
+    String revocationParameters() {
+        String request = Base64.getEncoder().encodeToString(new byte[]{0x30, 0x03, 0x02, 0x01, 0x01});
+        return "[{\"type\":\"ocsp\",\"url\":\"" + baseUrl() + "/ocsp\",\"request\":\"" + request + "\"},"
+                + "{\"type\":\"crl\",\"url\":\"" + baseUrl() + "/crl\"}]";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        ((ExecutorService) server.getExecutor()).shutdownNow();
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static byte[] ocspResponse(ZonedDateTime thisUpdate, ZonedDateTime nextUpdate) {
+        byte[] single = tlv(0x30,
+                tlv(0x30),                                          // certID
+                tlv(0x80),                                          // good
+                generalizedTime(thisUpdate),
+                tlv(0xA0, generalizedTime(nextUpdate)));
+        byte[] tbs = tlv(0x30,
+                tlv(0xA1, tlv(0x30)),                               // responderID
+                generalizedTime(thisUpdate),                        // producedAt
+                tlv(0x30, single));
+        byte[] basic = tlv(0x30, tbs, tlv(0x30), tlv(0x03, new byte[257]));
+        byte[] responseBytes = tlv(0x30,
+                tlv(0x06, new byte[]{0x2b, 0x06, 0x01, 0x05, 0x05, 0x07, 0x30, 0x01, 0x01}),
+                tlv(0x04, basic));
+        return tlv(0x30, tlv(0x0A, new byte[]{0}), tlv(0xA0, responseBytes));
+    }
+
+    static byte[] crl(ZonedDateTime thisUpdate, ZonedDateTime nextUpdate, int size) {
+        byte[] tbs = tlv(0x30,
+                tlv(0x02, new byte[]{1}),                           // version
+                tlv(0x30),                                          // signature
+                tlv(0x30),                                          // issuer
+                utcTime(thisUpdate),
+                utcTime(nextUpdate),
+                tlv(0x30, new byte[Math.max(0, size - 64)]));       // revokedCertificates filler
+        return tlv(0x30, tbs, tlv(0x30), tlv(0x03, new byte[33]));
+    }
+
+    static byte[] pem(byte[] der) {
+        String body = Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(der);
+        return ("-----BEGIN X509 CRL-----\n" + body + "\n-----END X509 CRL-----\n").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] generalizedTime(ZonedDateTime time) {
+        return tlv(0x18, GENERALIZED_TIME.format(time).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static byte[] utcTime(ZonedDateTime time) {
+        return tlv(0x17, UTC_TIME.format(time).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static byte[] tlv(int tag, byte[]... parts) {
+        ByteArrayOutputStream value = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            value.writeBytes(part);
+        }
+        int length = value.size();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(length + 6);
+        out.write(tag);
+        if (length < 0x80) {
+            out.write(length);
+        } else {
+            int count = (32 - Integer.numberOfLeadingZeros(length) + 7) / 8;
+            out.write(0x80 | count);
+            for (int i = count - 1; i >= 0; i--) {
+                out.write(length >>> (8 * i));
+            }
+        }
+        out.writeBytes(value.toByteArray());
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,88 @@
+package com.signpdfkit;
+
+import com.signpdfkit.SignPDFKit.AsyncSigner;
+import com.signpdfkit.SignPDFKit.Sign;
+import com.signpdfkit.SignPDFKit.Sign.SignPdfOptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SignAsyncTest {
+
+    @TempDir
+    Path dir;
+
+    private final FakeSignPDFLibrary lib = new FakeSignPDFLibrary(100, 1);
+    private final NativeGovernor governor = new NativeGovernor(2, 8, 2, 8, Duration.ofSeconds(1));
+
+    @Test
+    void signerCompletingWithNullFailsLikeSyncPath() throws Exception {
+        Sign sync = new Sign(lib, (digest, options) -> null, new HashMap<>()).governor(governor);
+        Sign async = asyncSigner((digest, options) -> CompletableFuture.completedFuture(null));
+
+        String expected = "{\"response_code\":4,\"response_status\":\"Failed when process PDF: signer returned no CMS\"}";
+        assertEquals(expected, sync.signPdf(options()));
+        assertEquals(expected, async.signPdfAsync(options()).get(5, TimeUnit.SECONDS));
+        assertPermitsReleased();
+    }
+
+    @Test
+    void signerReturningNullFutureFails() throws Exception {
+        Sign async = asyncSigner((digest, options) -> null);
+
+        assertEquals("{\"response_code\":4,\"response_status\":\"Failed when process PDF: signer returned no CMS\"}",
+                async.signPdfAsync(options()).get(5, TimeUnit.SECONDS));
+        assertPermitsReleased();
+    }
+
+    @Test
+    void signerThrowingFailsAndReleasesPermit() throws Exception {
+        Sign async = asyncSigner((digest, options) -> {
+            throw new IllegalStateException("remote down");
+        });
+
+        assertEquals("{\"response_code\":4,\"response_status\":\"Failed when process PDF: remote down\"}",
+                async.signPdfAsync(options()).get(5, TimeUnit.SECONDS));
+        assertPermitsReleased();
+    }
+
+    @Test
+    void signerFailingLaterReportsCause() throws Exception {
+        Sign async = asyncSigner((digest, options) ->
+                CompletableFuture.failedFuture(new IllegalStateException("rejected digest")));
+
+        assertEquals("{\"response_code\":4,\"response_status\":\"Failed when process PDF: rejected digest\"}",
+                async.signPdfAsync(options()).get(5, TimeUnit.SECONDS));
+        assertPermitsReleased();
+    }
+
+    @Test
+    void signsWithAsyncSigner() throws Exception {
+        Sign async = asyncSigner((digest, options) -> CompletableFuture.completedFuture("CMS"));
+
+        assertEquals("{\"response_code\":0,\"response_status\":\"success\"}",
+                async.signPdfAsync(options()).get(5, TimeUnit.SECONDS));
+        assertPermitsReleased();
+        assertEquals(0, lib.liveAllocations());
+    }
+
+    private SignPdfOptions options() {
+        return new SignPdfOptions(dir.resolve("in.pdf").toString(), dir.resolve("out.pdf").toString());
+    }
+
+    private void assertPermitsReleased() {
+        assertEquals(2, governor.availablePermits(NativeGovernor.Lane.CPU));
+        assertEquals(2, governor.availablePermits(NativeGovernor.Lane.NETWORK));
+    }
+
+    private Sign asyncSigner(AsyncSigner signer) {
+        return Sign.async(lib, signer, new HashMap<>()).governor(governor);
+    }
+}
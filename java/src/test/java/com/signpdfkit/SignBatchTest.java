@@ -0,0 +1,178 @@
+package com.signpdfkit;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.signpdfkit.SignPDFKit.Sign;
+import com.signpdfkit.SignPDFKit.Sign.SignPdfOptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SignBatchTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void resultsFollowInputOrder() {
+        FakeSignPDFLibrary lib = new FakeSignPDFLibrary(100, 1);
+        Sign signer = new Sign(lib, (digest, options) -> {
+            sleep(20);
+            return "CMS";
+        }, new HashMap<>());
+
+        // Invalid documents fail at once, valid ones wait for the signer, so
+        // completion order differs from input order
+        List<SignPdfOptions> batch = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            String extension = i % 3 == 0 ? ".txt" : ".pdf";
+            batch.add(new SignPdfOptions(dir.resolve("in" + i + extension).toString(),
+                    dir.resolve("out" + i + ".pdf").toString()));
+        }
+
+        List<String> results = signer.signBatch(batch, 2, 4, 2);
+
+        assertEquals(batch.size(), results.size());
+        for (int i = 0; i < batch.size(); i++) {
+            JsonObject result = JsonParser.parseString(results.get(i)).getAsJsonObject();
+            if (i % 3 == 0) {
+                assertEquals(3, result.get("response_code").getAsInt(), "document " + i);
+                assertTrue(Files.notExists(dir.resolve("out" + i + ".pdf")));
+            } else {
+                assertEquals(0, result.get("response_code").getAsInt(), "document " + i);
+                assertTrue(Files.exists(dir.resolve("out" + i + ".pdf")));
+            }
+        }
+        assertEquals(0, lib.liveAllocations());
+    }
+
+    @Test
+    void failuresUseSignPdfResponseShape() {
+        FakeSignPDFLibrary lib = new FakeSignPDFLibrary(100, 1);
+        Sign signer = new Sign(lib, (digest, options) -> {
+            throw new IllegalStateException("remote down");
+        }, new HashMap<>());
+
+        List<SignPdfOptions> batch = List.of(
+                new SignPdfOptions(dir.resolve("a.pdf").toString(), dir.resolve("a-signed.pdf").toString()),
+                new SignPdfOptions(null, dir.resolve("b-signed.pdf").toString()));
+
+        List<String> results = signer.signBatch(batch, 1, 1, 1);
+
+        JsonObject remoteFailure = JsonParser.parseString(results.get(0)).getAsJsonObject();
+        assertEquals(2, remoteFailure.size());
+        assertEquals(4, remoteFailure.get("response_code").getAsInt());
+        assertEquals("Failed when process PDF: remote down", remoteFailure.get("response_status").getAsString());
+
+        JsonObject invalid = JsonParser.parseString(results.get(1)).getAsJsonObject();
+        assertEquals(2, invalid.size());
+        assertEquals(3, invalid.get("response_code").getAsInt());
+        assertEquals("Input parameters is incorrect", invalid.get("response_status").getAsString());
+
+        // Same JSON as the single-document call
+        assertEquals(signer.signPdf(batch.get(0)), results.get(0));
+        assertEquals(signer.signPdf(batch.get(1)), results.get(1));
+        assertEquals(0, lib.liveAllocations());
+    }
+
+    @Test
+    void stagesOverlapAcrossDocuments() {
+        FakeSignPDFLibrary lib = new FakeSignPDFLibrary(100, 1);
+        List<String> calls = new CopyOnWriteArrayList<>();
+        CountDownLatch embedded = new CountDownLatch(1);
+        AtomicBoolean lastDigestAfterEmbed = new AtomicBoolean();
+        lib.listener(call -> {
+            calls.add(call);
+            if (call.startsWith("embed_cms")) {
+                embedded.countDown();
+            } else if (call.startsWith("calculate_digest") && call.endsWith("in39.pdf")) {
+                // Only a pipeline that embeds while digesting gets past this
+                lastDigestAfterEmbed.set(await(embedded));
+            }
+        });
+        PeakSigner remote = new PeakSigner(4);
+        Sign signer = new Sign(lib, remote, new HashMap<>());
+
+        List<String> results = signer.signBatch(documents(40), 2, 4, 2);
+
+        assertTrue(results.stream().allMatch(r -> r.contains("\"response_code\":0")));
+        assertEquals(4, remote.peak.get(), "remote signing should use every sign worker");
+        assertTrue(lastDigestAfterEmbed.get(), "embedding should start before the last digest: " + calls);
+    }
+
+    @Test
+    void remoteConcurrencyFollowsSignWorkers() {
+        FakeSignPDFLibrary lib = new FakeSignPDFLibrary(100, 1);
+        List<SignPdfOptions> batch = documents(32);
+
+        PeakSigner serial = new PeakSigner(1);
+        new Sign(lib, serial, new HashMap<>()).signBatch(batch, 1, 1, 1);
+        PeakSigner parallel = new PeakSigner(8);
+        new Sign(lib, parallel, new HashMap<>()).signBatch(batch, 2, 8, 2);
+
+        assertEquals(1, serial.peak.get());
+        assertEquals(8, parallel.peak.get(), "8 sign workers should sign 8 documents at once");
+    }
+
+    // Records the peak number of concurrent remote signs; the first calls wait
+    // until workers are signing at once, so the peak does not depend on timing
+    private static final class PeakSigner implements BiFunction<String, Map<String, Object>, String> {
+        final AtomicInteger peak = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final CountDownLatch allSigning;
+
+        PeakSigner(int workers) {
+            allSigning = new CountDownLatch(workers);
+        }
+
+        @Override
+        public String apply(String digest, Map<String, Object> options) {
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            allSigning.countDown();
+            await(allSigning);
+            inFlight.decrementAndGet();
+            return "CMS";
+        }
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private List<SignPdfOptions> documents(int count) {
+        List<SignPdfOptions> batch = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            batch.add(new SignPdfOptions(dir.resolve("in" + i + ".pdf").toString(),
+                    dir.resolve("out" + i + ".pdf").toString()));
+        }
+        return batch;
+    }
+
+    static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
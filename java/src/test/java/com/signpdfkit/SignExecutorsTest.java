@@ -0,0 +1,37 @@
+package com.signpdfkit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SignExecutorsTest {
+
+    @Test
+    void virtualThreadExecutorRunsTasksConcurrentlyOnAnyRuntime() throws InterruptedException {
+        // On Java 11-20 this is the platform fallback; either way no task waits for another
+        ExecutorService executor = SignExecutors.newVirtualThreadExecutor();
+        CountDownLatch running = new CountDownLatch(16);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < 16; i++) {
+                executor.execute(() -> {
+                    running.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+}
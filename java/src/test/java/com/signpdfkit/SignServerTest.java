@@ -0,0 +1,95 @@
+package com.signpdfkit;
+
+import com.signpdfkit.SignPDFKit.Sign;
+import com.signpdfkit.SignPDFKit.Sign.SignPdfOptions;
+import com.signpdfkit.SignPDFKit.Verify;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SignServerTest {
+
+    private static final int MAX_DOCUMENT_BYTES = 64 * 1024;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final NativeGovernor governor = new NativeGovernor(1, 0, 1, 0, Duration.ofMillis(50));
+    private SigningProfile profile;
+    private SignServer server;
+
+    @BeforeEach
+    void start() throws IOException {
+        FakeSignPDFLibrary lib = new FakeSignPDFLibrary(100, 1);
+        profile = SigningProfile.of(new SignPdfOptions(null, null));
+        server = new SignServer(new Sign(lib, (digest, options) -> "CMS", new HashMap<>()), new Verify(lib),
+                profile, governor, new SignServer.Options()
+                        .address(new InetSocketAddress("127.0.0.1", 0))
+                        .threads(4)
+                        .virtualThreads(false)
+                        .maxDocumentBytes(MAX_DOCUMENT_BYTES));
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        server.close();
+        profile.close();
+    }
+
+    @Test
+    void signsAndVerifies() throws Exception {
+        HttpResponse<byte[]> signed = post("/sign", HttpRequest.BodyPublishers.ofByteArray(new byte[1024]));
+        assertEquals(200, signed.statusCode());
+        assertEquals("application/pdf", signed.headers().firstValue("Content-Type").orElse(null));
+        assertTrue(signed.body().length > 0);
+
+        HttpResponse<byte[]> verified = post("/verify", HttpRequest.BodyPublishers.ofByteArray(new byte[1024]));
+        assertEquals(200, verified.statusCode());
+        assertTrue(new String(verified.body()).contains("\"signatures\""));
+    }
+
+    @Test
+    void declaredOversizeIsRejectedWith413() throws Exception {
+        byte[] document = new byte[MAX_DOCUMENT_BYTES + 1];
+        assertEquals(413, post("/sign", HttpRequest.BodyPublishers.ofByteArray(document)).statusCode());
+        assertEquals(413, post("/verify", HttpRequest.BodyPublishers.ofByteArray(document)).statusCode());
+    }
+
+    @Test
+    void streamedOversizeIsRejectedWith413() throws Exception {
+        // ofInputStream sends no Content-Length, so only the streaming limit can catch it
+        byte[] document = new byte[MAX_DOCUMENT_BYTES + 1];
+        assertEquals(413, post("/sign", HttpRequest.BodyPublishers.ofInputStream(
+                () -> new ByteArrayInputStream(document))).statusCode());
+        assertEquals(413, post("/verify", HttpRequest.BodyPublishers.ofInputStream(
+                () -> new ByteArrayInputStream(document))).statusCode());
+    }
+
+    @Test
+    void governorRejectionIsAnsweredWith503() throws Exception {
+        try (NativeGovernor.Permit held = governor.acquire(NativeGovernor.Lane.CPU)) {
+            assertEquals(503, post("/sign", HttpRequest.BodyPublishers.ofByteArray(new byte[1024])).statusCode());
+            assertEquals(503, post("/verify", HttpRequest.BodyPublishers.ofByteArray(new byte[1024])).statusCode());
+        }
+        assertEquals(200, post("/verify", HttpRequest.BodyPublishers.ofByteArray(new byte[1024])).statusCode());
+    }
+
+    private HttpResponse<byte[]> post(String path, HttpRequest.BodyPublisher body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.address().getPort() + path))
+                .POST(body)
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
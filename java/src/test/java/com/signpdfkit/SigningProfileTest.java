@@ -0,0 +1,56 @@
+package com.signpdfkit;
+
+import com.signpdfkit.SignPDFKit.DSS;
+import com.signpdfkit.SignPDFKit.Sign;
+import com.signpdfkit.SignPDFKit.Sign.SignPdfOptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SigningProfileTest {
+
+    private static final String SUCCESS = "{\"response_code\":0,\"response_status\":\"success\"}";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void everyEntryPointUsesProfileCache() throws Exception {
+        try (RevocationFixtures responder = new RevocationFixtures(4096, false)) {
+            FakeSignPDFLibrary lib = new FakeSignPDFLibrary(100, 1);
+            lib.revocationParameters(responder.revocationParameters());
+            RevocationCache cache = new RevocationCache();
+            Sign signer = new Sign(lib, (digest, options) -> "CMS", new HashMap<>());
+
+            try (SigningProfile profile = SigningProfile.of(new SignPdfOptions(null, null).dss(DSS.YES), cache)) {
+                assertEquals(SUCCESS, signer.signPdf(profile, path("in1.pdf"), path("out1.pdf")));
+
+                ByteArrayOutputStream signed = new ByteArrayOutputStream();
+                SignResult streamed = signer.signPdfResult(profile, new ByteArrayInputStream(new byte[1024]), signed);
+                assertTrue(streamed.isSuccess());
+                assertTrue(signed.size() > 0);
+
+                assertEquals(SUCCESS, signer.signPdfAsync(profile, path("in3.pdf"), path("out3.pdf"),
+                        ForkJoinPool.commonPool()).get(5, TimeUnit.SECONDS));
+            }
+
+            assertEquals(1, responder.ocspRequests.get());
+            assertEquals(1, responder.crlRequests.get());
+            assertEquals(4, cache.hits());
+            assertEquals(0, lib.liveAllocations());
+        }
+    }
+
+    private String path(String name) {
+        return dir.resolve(name).toString();
+    }
+}
@@ -0,0 +1,87 @@
+package com.signpdfkit;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Local signing endpoint whose answers, status codes and delays are decided
+ * per request by the test. Every request body is kept for assertions.
+ */
+final class StubSigningServer implements AutoCloseable {
+
+    static final class Reply {
+        final int status;
+        final String body;
+        final long delayMillis;
+
+        private Reply(int status, String body, long delayMillis) {
+            this.status = status;
+            this.body = body;
+            this.delayMillis = delayMillis;
+        }
+
+        static Reply ok(String body) {
+            return new Reply(200, body, 0);
+        }
+
+        static Reply status(int status, String body) {
+            return new Reply(status, body, 0);
+        }
+
+        Reply after(long delayMillis) {
+            return new Reply(status, body, delayMillis);
+        }
+    }
+
+    final List<JsonObject> requests = new CopyOnWriteArrayList<>();
+    private final HttpServer server;
+
+    StubSigningServer(Function<JsonObject, Reply> responder) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            try {
+                JsonObject request = JsonParser.parseString(
+                        new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)).getAsJsonObject();
+                requests.add(request);
+                Reply reply = responder.apply(request);
+                if (reply.delayMillis > 0) {
+                    Thread.sleep(reply.delayMillis);
+                }
+                byte[] body = reply.body.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(reply.status, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        ((ExecutorService) server.getExecutor()).shutdownNow();
+    }
+}
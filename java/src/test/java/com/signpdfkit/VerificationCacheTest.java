@@ -0,0 +1,134 @@
+package com.signpdfkit;
+
+import com.signpdfkit.SignPDFKit.Verify;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class VerificationCacheTest {
+
+    @TempDir
+    Path dir;
+
+    private final AtomicInteger verifications = new AtomicInteger();
+    private final Function<Path, String> verifier = file -> {
+        verifications.incrementAndGet();
+        try {
+            return "{\"response_code\":0,\"content\":\"" + new String(Files.readAllBytes(file), StandardCharsets.UTF_8)
+                    + "\"}";
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    };
+
+    @Test
+    void unchangedFileIsNeitherHashedNorVerifiedAgain() throws IOException {
+        VerificationCache cache = new VerificationCache();
+        Path file = write("doc.pdf", "first", 1_000);
+
+        String result = cache.verify(file, verifier);
+        assertEquals(result, cache.verify(file, verifier));
+
+        assertEquals(1, verifications.get());
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.hashesAvoided());
+    }
+
+    @Test
+    void modificationTimeChangeRehashes() throws IOException {
+        VerificationCache cache = new VerificationCache();
+        Path file = write("doc.pdf", "first", 1_000);
+        cache.verify(file, verifier);
+
+        // Same size, new content: only the mtime tells the fingerprint it changed
+        write("doc.pdf", "other", 2_000);
+        assertEquals("{\"response_code\":0,\"content\":\"other\"}", cache.verify(file, verifier));
+        assertEquals(2, verifications.get());
+        assertEquals(0, cache.hashesAvoided());
+
+        // New mtime, same content: re-hashed, but the content is already cached
+        Files.setLastModifiedTime(file, FileTime.fromMillis(3_000));
+        cache.verify(file, verifier);
+        assertEquals(2, verifications.get());
+        assertEquals(1, cache.hits());
+        assertEquals(0, cache.hashesAvoided());
+    }
+
+    @Test
+    void sizeChangeRehashes() throws IOException {
+        VerificationCache cache = new VerificationCache();
+        Path file = write("doc.pdf", "first", 1_000);
+        cache.verify(file, verifier);
+
+        // Same mtime, different size
+        write("doc.pdf", "longer content", 1_000);
+        assertEquals("{\"response_code\":0,\"content\":\"longer content\"}", cache.verify(file, verifier));
+        assertEquals(2, verifications.get());
+        assertEquals(0, cache.hashesAvoided());
+    }
+
+    @Test
+    void identicalContentElsewhereIsAHit() throws IOException {
+        VerificationCache cache = new VerificationCache();
+        cache.verify(write("a.pdf", "same", 1_000), verifier);
+        cache.verify(write("b.pdf", "same", 5_000), verifier);
+
+        assertEquals(1, verifications.get());
+        assertEquals(1, cache.hits());
+    }
+
+    @Test
+    void expiredAndFailedResultsAreVerifiedAgain() throws Exception {
+        VerificationCache cache = new VerificationCache(100, 1024 * 1024, null, Duration.ofMillis(20));
+        Path file = write("doc.pdf", "first", 1_000);
+        cache.verify(file, verifier);
+        Thread.sleep(50);
+        cache.verify(file, verifier);
+        assertEquals(2, verifications.get(), "past the TTL");
+
+        AtomicInteger failures = new AtomicInteger();
+        Path broken = write("broken.pdf", "broken", 1_000);
+        assertNull(cache.verify(broken, path -> {
+            failures.incrementAndGet();
+            return null;
+        }));
+        cache.verify(broken, path -> {
+            failures.incrementAndGet();
+            return null;
+        });
+        assertEquals(2, failures.get(), "failures are not cached");
+    }
+
+    @Test
+    void verifyUsesTheCache() throws IOException {
+        VerificationCache cache = new VerificationCache();
+        AtomicInteger nativeCalls = new AtomicInteger();
+        FakeSignPDFLibrary lib = new FakeSignPDFLibrary(100, 2);
+        lib.listener(call -> nativeCalls.incrementAndGet());
+        Verify verifier = new Verify(lib).verificationCache(cache);
+        String file = write("doc.pdf", "signed", 1_000).toString();
+
+        String first = verifier.verify(file);
+        assertEquals(first, verifier.verify(file));
+        assertEquals(1, nativeCalls.get());
+        assertEquals(0, lib.liveAllocations());
+    }
+
+    private Path write(String name, String content, long modifiedMillis) throws IOException {
+        Path file = dir.resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(modifiedMillis));
+        return file;
+    }
+}
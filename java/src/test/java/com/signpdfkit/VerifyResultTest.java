@@ -0,0 +1,54 @@
+package com.signpdfkit;
+
+import com.google.gson.JsonNull;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VerifyResultTest {
+
+    @Test
+    void readsTopLevelFields() {
+        VerifyResult result = new VerifyResult("{\"response_code\":0,\"response_status\":\"success\","
+                + "\"data\":{\"response_code\":5},\"signatures\":[{\"a\":1},{\"b\":[2,3]},{}]}");
+
+        assertTrue(result.isValid());
+        assertEquals(0, result.responseCode());
+        assertEquals("success", result.responseStatus());
+        assertEquals(3, result.arraySize("signatures"));
+        assertEquals(5, result.field("data").getAsJsonObject().get("response_code").getAsInt());
+        assertSame(result.field("data"), result.field("data"), "fields are parsed once");
+    }
+
+    @Test
+    void nonIntegerResponseCodeIsAbsent() {
+        for (String code : new String[]{"\"n/a\"", "true", "null", "{}", "[0]", "1.5", "99999999999"}) {
+            VerifyResult result = new VerifyResult("{\"response_code\":" + code + "}");
+            assertEquals(-1, result.responseCode(), code);
+            assertFalse(result.isValid(), code);
+        }
+        assertEquals(3, new VerifyResult("{\"response_code\":\"3\"}").responseCode());
+    }
+
+    @Test
+    void missingOrMalformedPayloadReadsAsAbsent() {
+        for (String raw : new String[]{null, "", "not json", "[1,2]", "{\"response_code\":", "{\"other\":1}"}) {
+            VerifyResult result = new VerifyResult(raw);
+            assertEquals(-1, result.responseCode(), raw);
+            assertNull(result.responseStatus(), raw);
+            assertEquals(JsonNull.INSTANCE, result.field("signatures"), raw);
+            assertEquals(0, result.arraySize("signatures"), raw);
+        }
+    }
+
+    @Test
+    void rawPayloadIsKeptAsReturned() {
+        String raw = "{ \"response_code\" : 0 }";
+        assertSame(raw, new VerifyResult(raw).raw());
+        assertNull(new VerifyResult(null).raw());
+    }
+}